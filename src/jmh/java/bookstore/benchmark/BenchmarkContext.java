@@ -0,0 +1,25 @@
+package bookstore.benchmark;
+
+import bookstore.OnlineBookStoreApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+final class BenchmarkContext {
+    private static final String PROFILE = "benchmark";
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... additionalProfiles) {
+        return new SpringApplicationBuilder(OnlineBookStoreApplication.class)
+                .profiles(PROFILE)
+                .profiles(additionalProfiles)
+                .run();
+    }
+
+    static ConfigurableApplicationContext startWithArgs(String... args) {
+        return new SpringApplicationBuilder(OnlineBookStoreApplication.class)
+                .profiles(PROFILE)
+                .run(args);
+    }
+}
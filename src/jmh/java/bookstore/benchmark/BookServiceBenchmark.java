@@ -0,0 +1,83 @@
+package bookstore.benchmark;
+
+import bookstore.dto.book.BookDto;
+import bookstore.model.Book;
+import bookstore.model.Category;
+import bookstore.repository.BookRepository;
+import bookstore.repository.CategoryRepository;
+import bookstore.service.BookService;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookServiceBenchmark {
+    private static final int CATALOG_SIZE = 1000;
+    private static final int CATEGORY_COUNT = 10;
+
+    @Param({"20", "100"})
+    private int pageSize;
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        bookService = context.getBean(BookService.class);
+        pageable = PageRequest.of(CATALOG_SIZE / pageSize / 2, pageSize, Sort.by("title"));
+
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORY_COUNT; i++) {
+            Category category = new Category();
+            category.setName("Category " + i);
+            categories.add(category);
+        }
+        categories = context.getBean(CategoryRepository.class).saveAll(categories);
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            Book book = new Book();
+            book.setTitle("Title " + i);
+            book.setAuthor("Author " + i % 50);
+            book.setIsbn("isbn-" + i);
+            book.setPrice(BigDecimal.valueOf(10 + i % 90));
+            book.getCategories().add(categories.get(i % CATEGORY_COUNT));
+            book.getCategories().add(categories.get((i + 1) % CATEGORY_COUNT));
+            books.add(book);
+        }
+        context.getBean(BookRepository.class).saveAll(books);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookDto> findAll() {
+        return bookService.findAll(pageable);
+    }
+}
@@ -0,0 +1,127 @@
+package bookstore.benchmark;
+
+import bookstore.dto.book.BookDto;
+import bookstore.dto.order.OrderDto;
+import bookstore.dto.shoppingcart.ShoppingCartDto;
+import bookstore.mapper.BookMapper;
+import bookstore.mapper.OrderMapper;
+import bookstore.mapper.ShoppingCartMapper;
+import bookstore.model.Book;
+import bookstore.model.CartItem;
+import bookstore.model.Category;
+import bookstore.model.Order;
+import bookstore.model.OrderItem;
+import bookstore.model.ShoppingCart;
+import bookstore.model.User;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+    private static final int CATEGORIES_PER_BOOK = 3;
+
+    @Param({"1", "20"})
+    private int itemCount;
+    private ConfigurableApplicationContext context;
+    private BookMapper bookMapper;
+    private OrderMapper orderMapper;
+    private ShoppingCartMapper shoppingCartMapper;
+    private Book book;
+    private Order order;
+    private ShoppingCart shoppingCart;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        bookMapper = context.getBean(BookMapper.class);
+        orderMapper = context.getBean(OrderMapper.class);
+        shoppingCartMapper = context.getBean(ShoppingCartMapper.class);
+
+        User user = new User();
+        user.setId(1L);
+        book = createBook(1L);
+        order = new Order();
+        order.setId(1L);
+        order.setUser(user);
+        order.setStatus(Order.Status.PENDING);
+        order.setOrderDate(LocalDateTime.now());
+        order.setShippingAddress("Kyiv");
+        shoppingCart = new ShoppingCart();
+        shoppingCart.setId(1L);
+        shoppingCart.setUser(user);
+        for (long i = 1; i <= itemCount; i++) {
+            Book itemBook = createBook(i);
+            OrderItem orderItem = new OrderItem();
+            orderItem.setId(i);
+            orderItem.setOrder(order);
+            orderItem.setBook(itemBook);
+            orderItem.setQuantity(1);
+            orderItem.setPrice(itemBook.getPrice());
+            order.getOrderItems().add(orderItem);
+            CartItem cartItem = new CartItem();
+            cartItem.setId(i);
+            cartItem.setShoppingCart(shoppingCart);
+            cartItem.setBook(itemBook);
+            cartItem.setQuantity(1);
+            shoppingCart.getCartItems().add(cartItem);
+        }
+        order.setTotal(BigDecimal.TEN.multiply(BigDecimal.valueOf(itemCount)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookDto bookToDto() {
+        return bookMapper.toDto(book);
+    }
+
+    @Benchmark
+    public OrderDto orderToDto() {
+        return orderMapper.toDto(order);
+    }
+
+    @Benchmark
+    public ShoppingCartDto shoppingCartToDto() {
+        return shoppingCartMapper.toDto(shoppingCart);
+    }
+
+    private Book createBook(long id) {
+        Book newBook = new Book();
+        newBook.setId(id);
+        newBook.setTitle("Title " + id);
+        newBook.setAuthor("Author " + id);
+        newBook.setIsbn("isbn-" + id);
+        newBook.setPrice(BigDecimal.TEN);
+        newBook.setDescription("Description " + id);
+        for (long i = 1; i <= CATEGORIES_PER_BOOK; i++) {
+            Category category = new Category();
+            category.setId(i);
+            category.setName("Category " + i);
+            newBook.getCategories().add(category);
+        }
+        return newBook;
+    }
+}
@@ -0,0 +1,118 @@
+package bookstore.benchmark;
+
+import bookstore.dto.order.CreateOrderRequestDto;
+import bookstore.dto.order.OrderDto;
+import bookstore.inventory.Inventory;
+import bookstore.model.Book;
+import bookstore.model.CartItem;
+import bookstore.model.ShoppingCart;
+import bookstore.model.User;
+import bookstore.repository.BookRepository;
+import bookstore.repository.CartItemRepository;
+import bookstore.repository.ShoppingCartRepository;
+import bookstore.repository.UserRepository;
+import bookstore.service.OrderService;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderServiceBenchmark {
+    private static final CreateOrderRequestDto REQUEST = new CreateOrderRequestDto("Kyiv");
+
+    @Param({"1", "20", "100"})
+    private int cartSize;
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private CartItemRepository cartItemRepository;
+    private ShoppingCartRepository shoppingCartRepository;
+    private TransactionTemplate transactionTemplate;
+    private User user;
+    private List<Book> books;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        orderService = context.getBean(OrderService.class);
+        cartItemRepository = context.getBean(CartItemRepository.class);
+        shoppingCartRepository = context.getBean(ShoppingCartRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        List<Book> newBooks = new ArrayList<>();
+        for (int i = 0; i < cartSize; i++) {
+            Book book = new Book();
+            book.setTitle("Title " + i);
+            book.setAuthor("Author");
+            book.setIsbn("isbn-" + i);
+            book.setPrice(BigDecimal.TEN);
+            newBooks.add(book);
+        }
+        books = context.getBean(BookRepository.class).saveAll(newBooks);
+        Inventory inventory = context.getBean(Inventory.class);
+        books.forEach(book -> inventory.setAvailable(book.getId(), Integer.MAX_VALUE));
+        user = transactionTemplate.execute(status -> {
+            User newUser = new User();
+            newUser.setEmail("benchmark@example.com");
+            newUser.setPassword("password");
+            newUser.setFirstName("First");
+            newUser.setLastName("Last");
+            newUser = context.getBean(UserRepository.class).save(newUser);
+            ShoppingCart shoppingCart = new ShoppingCart();
+            shoppingCart.setUser(newUser);
+            shoppingCartRepository.save(shoppingCart);
+            return newUser;
+        });
+    }
+
+    @Setup(Level.Invocation)
+    public void fillShoppingCart() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        transactionTemplate.executeWithoutResult(status -> {
+            ShoppingCart shoppingCart = shoppingCartRepository.getReferenceById(user.getId());
+            List<CartItem> cartItems = new ArrayList<>();
+            for (Book book : books) {
+                CartItem cartItem = new CartItem();
+                cartItem.setShoppingCart(shoppingCart);
+                cartItem.setBook(book);
+                cartItem.setQuantity(1);
+                cartItems.add(cartItem);
+            }
+            cartItemRepository.saveAll(cartItems);
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    public OrderDto createOrder() {
+        return orderService.createOrder(REQUEST);
+    }
+}
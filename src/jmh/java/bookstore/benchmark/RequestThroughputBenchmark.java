@@ -0,0 +1,97 @@
+package bookstore.benchmark;
+
+import bookstore.dto.user.UserRegistrationRequestDto;
+import bookstore.exception.RegistrationException;
+import bookstore.model.Book;
+import bookstore.repository.BookRepository;
+import bookstore.security.JwtUtil;
+import bookstore.service.UserService;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(400)
+@State(Scope.Benchmark)
+public class RequestThroughputBenchmark {
+    private static final String EMAIL = "load@example.com";
+    private static final String PASSWORD = "password";
+    private static final int CATALOG_SIZE = 1000;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws RegistrationException {
+        context = "virtual".equals(threads)
+                ? BenchmarkContext.start("virtual-threads")
+                : BenchmarkContext.start();
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            Book book = new Book();
+            book.setTitle("Title " + i);
+            book.setAuthor("Author " + i % 50);
+            book.setIsbn("isbn-" + i);
+            book.setPrice(BigDecimal.TEN);
+            books.add(book);
+        }
+        context.getBean(BookRepository.class).saveAll(books);
+        context.getBean(UserService.class).register(new UserRegistrationRequestDto(
+                EMAIL, PASSWORD, PASSWORD, "Load", "Test", null));
+
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:"
+                        + context.getEnvironment().getRequiredProperty("local.server.port")
+                        + "/books?page=10&size=20&sort=title"))
+                .header("Authorization",
+                        "Bearer " + context.getBean(JwtUtil.class).generateToken(EMAIL))
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getBooks() throws IOException, InterruptedException {
+        HttpResponse<Void> response = httpClient.send(request,
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,118 @@
+package bookstore.benchmark;
+
+import bookstore.inventory.Inventory;
+import bookstore.model.Book;
+import bookstore.model.Order;
+import bookstore.model.User;
+import bookstore.repository.BookRepository;
+import bookstore.repository.OrderRepository;
+import bookstore.repository.UserRepository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(StockContentionBenchmark.BUYERS)
+@State(Scope.Benchmark)
+public class StockContentionBenchmark {
+    static final int BUYERS = 32;
+    private static final int STOCK = 1_000_000_000;
+
+    @Param({"1", "8", "32"})
+    private int stripes;
+    // an in-memory database commits instantly, while a real one keeps the row locked
+    // for the round trip and the log flush
+    @Param({"0", "2"})
+    private int commitLatencyMillis;
+    private ConfigurableApplicationContext context;
+    private Inventory inventory;
+    private TransactionTemplate transactionTemplate;
+    private Map<Long, Integer> hotTitle;
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.startWithArgs("--inventory.stripes=" + stripes,
+                "--spring.datasource.hikari.maximum-pool-size=" + BUYERS);
+        inventory = context.getBean(Inventory.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        Book book = new Book();
+        book.setTitle("Hot title");
+        book.setAuthor("Author");
+        book.setIsbn("hot-isbn");
+        book.setPrice(BigDecimal.TEN);
+        book = context.getBean(BookRepository.class).save(book);
+        inventory.setAvailable(book.getId(), STOCK);
+        hotTitle = Map.of(book.getId(), 1);
+
+        user = new User();
+        user.setEmail("buyer@example.com");
+        user.setPassword("password");
+        user.setFirstName("First");
+        user.setLastName("Last");
+        user = context.getBean(UserRepository.class).save(user);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void reserveHotTitle(Buyer buyer) {
+        transactionTemplate.executeWithoutResult(status -> {
+            inventory.reserve(buyer.orderId, hotTitle);
+            inventory.confirm(List.of(buyer.orderId));
+            if (commitLatencyMillis > 0) {
+                sleep();
+            }
+        });
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(commitLatencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Buyer {
+        private Long orderId;
+
+        @Setup(Level.Trial)
+        public void createOrder(StockContentionBenchmark benchmark) {
+            Order order = new Order();
+            order.setUser(benchmark.user);
+            order.setStatus(Order.Status.PENDING);
+            order.setTotal(BigDecimal.TEN);
+            order.setOrderDate(LocalDateTime.now());
+            order.setShippingAddress("Kyiv");
+            orderId = benchmark.context.getBean(OrderRepository.class).save(order).getId();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package bookstore.cart;
+
+import bookstore.model.CartItem;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CartItemIdGenerator {
+    private final SessionFactoryImplementor sessionFactory;
+    private final IdentifierGenerator generator;
+
+    public CartItemIdGenerator(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.generator = sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(CartItem.class)
+                .getIdentifierGenerator();
+    }
+
+    public Long nextId() {
+        // the pooled optimizer only touches the database once per allocation block
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return (Long) generator.generate((SharedSessionContractImplementor) session, null);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package bookstore.cart;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+class CartJournal implements AutoCloseable {
+    private static final String SEGMENT_PREFIX = "cart-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private long segment;
+    private FileChannel channel;
+    private long appended;
+    private volatile long synced;
+
+    CartJournal(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't create cart journal directory " + directory, e);
+        }
+        this.segment = segments().stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    List<Entry> replay() {
+        List<Entry> entries = new ArrayList<>();
+        for (Long existingSegment : segments()) {
+            try (Stream<String> lines = Files.lines(segmentPath(existingSegment))) {
+                // a torn last line from a crash mid-append is skipped
+                lines.map(Entry::parse)
+                        .filter(entry -> entry != null)
+                        .forEach(entries::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Can't read cart journal segment "
+                        + existingSegment, e);
+            }
+        }
+        return entries;
+    }
+
+    void open() {
+        lock.lock();
+        try {
+            segment++;
+            channel = FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't open cart journal segment " + segment, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void append(Entry entry) {
+        ByteBuffer buffer = ByteBuffer.wrap(
+                (entry.format() + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+        lock.lock();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            appended++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't append to cart journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void sync() {
+        long target = appended();
+        if (synced >= target) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            // a force that started after our appends has made them durable already
+            if (synced >= target) {
+                return;
+            }
+            FileChannel current;
+            long covered;
+            lock.lock();
+            try {
+                current = channel;
+                covered = appended;
+            } finally {
+                lock.unlock();
+            }
+            current.force(false);
+            synced = covered;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't sync cart journal", e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    long rotate() {
+        syncLock.lock();
+        lock.lock();
+        try {
+            long rotated = segment;
+            closeChannel();
+            open();
+            return rotated;
+        } finally {
+            lock.unlock();
+            syncLock.unlock();
+        }
+    }
+
+    void deleteUpTo(long lastSegment) {
+        for (Long existingSegment : segments()) {
+            if (existingSegment <= lastSegment) {
+                try {
+                    Files.deleteIfExists(segmentPath(existingSegment));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Can't delete cart journal segment "
+                            + existingSegment, e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        syncLock.lock();
+        lock.lock();
+        try {
+            closeChannel();
+        } finally {
+            lock.unlock();
+            syncLock.unlock();
+        }
+    }
+
+    private long appended() {
+        lock.lock();
+        try {
+            return appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            // entries appended since the last sync are made durable before the segment is left
+            channel.force(false);
+            synced = appended;
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't close cart journal segment " + segment, e);
+        }
+    }
+
+    private List<Long> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX)
+                            && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't list cart journal segments", e);
+        }
+    }
+
+    private Path segmentPath(long segmentNumber) {
+        return directory.resolve(SEGMENT_PREFIX + segmentNumber + SEGMENT_SUFFIX);
+    }
+
+    enum Operation {
+        SET, REMOVE, FLUSH
+    }
+
+    record Entry(Operation operation, long cartId, long cartItemId, long bookId, int quantity) {
+        static Entry set(long cartId, long cartItemId, long bookId, int quantity) {
+            return new Entry(Operation.SET, cartId, cartItemId, bookId, quantity);
+        }
+
+        static Entry remove(long cartId, long cartItemId) {
+            return new Entry(Operation.REMOVE, cartId, cartItemId, 0, 0);
+        }
+
+        static Entry flush(long cartId) {
+            return new Entry(Operation.FLUSH, cartId, 0, 0, 0);
+        }
+
+        String format() {
+            return operation + " " + cartId + " " + cartItemId + " " + bookId + " " + quantity;
+        }
+
+        static Entry parse(String line) {
+            String[] parts = line.split(" ");
+            if (parts.length != 5) {
+                return null;
+            }
+            try {
+                return new Entry(Operation.valueOf(parts[0]), Long.parseLong(parts[1]),
+                        Long.parseLong(parts[2]), Long.parseLong(parts[3]),
+                        Integer.parseInt(parts[4]));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
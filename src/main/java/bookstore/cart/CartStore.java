@@ -0,0 +1,20 @@
+package bookstore.cart;
+
+import bookstore.dto.cartitem.CartItemDto;
+import bookstore.dto.shoppingcart.ShoppingCartDto;
+
+public interface CartStore {
+    boolean hasCart(Long cartId);
+
+    ShoppingCartDto getCart(Long cartId);
+
+    ShoppingCartDto addItem(Long cartId, Long bookId, String bookTitle, int quantity);
+
+    CartItemDto updateQuantity(Long cartId, Long cartItemId, int quantity);
+
+    void removeItem(Long cartId, Long cartItemId);
+
+    void flush(Long cartId);
+
+    void clear(Long cartId);
+}
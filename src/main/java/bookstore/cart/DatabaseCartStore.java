@@ -0,0 +1,78 @@
+package bookstore.cart;
+
+import bookstore.dto.cartitem.CartItemDto;
+import bookstore.dto.shoppingcart.ShoppingCartDto;
+import bookstore.exception.EntityNotFoundException;
+import bookstore.mapper.CartItemMapper;
+import bookstore.mapper.ShoppingCartMapper;
+import bookstore.model.CartItem;
+import bookstore.repository.CartItemRepository;
+import bookstore.repository.ShoppingCartRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@ConditionalOnProperty(name = "cart.store.type", havingValue = "database", matchIfMissing = true)
+@RequiredArgsConstructor
+public class DatabaseCartStore implements CartStore {
+    private final ShoppingCartRepository shoppingCartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final ShoppingCartMapper shoppingCartMapper;
+    private final CartItemMapper cartItemMapper;
+    private final CartItemIdGenerator cartItemIdGenerator;
+
+    @Override
+    public boolean hasCart(Long cartId) {
+        return shoppingCartRepository.existsById(cartId);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public ShoppingCartDto getCart(Long cartId) {
+        return shoppingCartRepository.findWithCartItemsById(cartId)
+                .map(shoppingCartMapper::toDto)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Can't find a shopping cart for user with id " + cartId));
+    }
+
+    @Transactional
+    @Override
+    public ShoppingCartDto addItem(Long cartId, Long bookId, String bookTitle, int quantity) {
+        cartItemRepository.upsertQuantity(cartItemIdGenerator.nextId(), cartId, bookId,
+                quantity);
+        return getCart(cartId);
+    }
+
+    @Transactional
+    @Override
+    public CartItemDto updateQuantity(Long cartId, Long cartItemId, int quantity) {
+        CartItem cartItem = getCartItem(cartId, cartItemId);
+        cartItem.setQuantity(quantity);
+        return cartItemMapper.toDto(cartItemRepository.save(cartItem));
+    }
+
+    @Transactional
+    @Override
+    public void removeItem(Long cartId, Long cartItemId) {
+        cartItemRepository.delete(getCartItem(cartId, cartItemId));
+    }
+
+    @Override
+    public void flush(Long cartId) {
+    }
+
+    @Transactional
+    @Override
+    public void clear(Long cartId) {
+        cartItemRepository.deleteAllByShoppingCartId(cartId);
+    }
+
+    private CartItem getCartItem(Long cartId, Long cartItemId) {
+        return cartItemRepository.findById(cartItemId)
+                .filter(cartItem -> cartItem.getShoppingCart().getId().equals(cartId))
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Can`t find cart item by id " + cartItemId));
+    }
+}
@@ -0,0 +1,386 @@
+package bookstore.cart;
+
+import bookstore.dto.cartitem.CartItemDto;
+import bookstore.dto.shoppingcart.ShoppingCartDto;
+import bookstore.exception.EntityNotFoundException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+@ConditionalOnProperty(name = "cart.store.type", havingValue = "write-behind")
+public class WriteBehindCartStore implements CartStore {
+    private static final int STRIPES = 64;
+    private static final String CART_EXISTS =
+            "SELECT COUNT(*) FROM shopping_carts WHERE user_id = ?";
+    private static final String SELECT_CART_ITEMS = "SELECT ci.id, ci.book_id, b.title, "
+            + "ci.quantity FROM cart_items ci JOIN books b ON b.id = ci.book_id "
+            + "WHERE ci.shopping_cart_id = ?";
+    private static final String UPSERT_CART_ITEM = "INSERT INTO cart_items "
+            + "(id, shopping_cart_id, book_id, quantity, version) VALUES (?, ?, ?, ?, 0) "
+            + "ON DUPLICATE KEY UPDATE quantity = ?, version = version + 1";
+    private static final String DELETE_CART_ITEM = "DELETE FROM cart_items WHERE id = ?";
+    private static final String DELETE_CART_ITEMS =
+            "DELETE FROM cart_items WHERE shopping_cart_id = ?";
+
+    private final Map<Long, CartState> carts = new ConcurrentHashMap<>();
+    private final Lock[] stripes = new Lock[STRIPES];
+    private final Lock flushLock = new ReentrantLock();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate flushTransaction;
+    private final CartItemIdGenerator cartItemIdGenerator;
+    private final CartJournal journal;
+    private final long idleTimeoutMillis;
+
+    public WriteBehindCartStore(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                CartItemIdGenerator cartItemIdGenerator,
+                                @Value("${cart.store.journal-dir}") Path journalDirectory,
+                                @Value("${cart.store.idle-timeout}") Duration idleTimeout) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.flushTransaction.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cartItemIdGenerator = cartItemIdGenerator;
+        this.journal = new CartJournal(journalDirectory);
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+    }
+
+    @PostConstruct
+    public void recover() {
+        List<CartJournal.Entry> entries = journal.replay();
+        Map<Long, Integer> lastFlushes = new HashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).operation() == CartJournal.Operation.FLUSH) {
+                lastFlushes.put(entries.get(i).cartId(), i);
+            }
+        }
+        // what came before a cart's flush is in the database, or was ordered and cleared
+        List<CartJournal.Entry> unflushed = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            CartJournal.Entry entry = entries.get(i);
+            if (i > lastFlushes.getOrDefault(entry.cartId(), -1)) {
+                unflushed.add(entry);
+            }
+        }
+        if (!unflushed.isEmpty()) {
+            flushTransaction.executeWithoutResult(status -> unflushed.forEach(this::applyEntry));
+        }
+        journal.deleteUpTo(Long.MAX_VALUE);
+        journal.open();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushAll();
+        journal.close();
+    }
+
+    @Override
+    public boolean hasCart(Long cartId) {
+        return carts.containsKey(cartId)
+                || jdbcTemplate.queryForObject(CART_EXISTS, Long.class, cartId) > 0;
+    }
+
+    @Override
+    public ShoppingCartDto getCart(Long cartId) {
+        return withCart(cartId, () -> toDto(cartId, carts.get(cartId)));
+    }
+
+    @Override
+    public ShoppingCartDto addItem(Long cartId, Long bookId, String bookTitle, int quantity) {
+        return withJournaledCart(cartId, () -> {
+            CartState cart = carts.get(cartId);
+            Line line = cart.lines.values().stream()
+                    .filter(existing -> existing.bookId == bookId)
+                    .findFirst()
+                    .orElseGet(() -> new Line(cartItemIdGenerator.nextId(), bookId, bookTitle));
+            setQuantity(cartId, cart, line, line.quantity + quantity);
+            return toDto(cartId, cart);
+        });
+    }
+
+    @Override
+    public CartItemDto updateQuantity(Long cartId, Long cartItemId, int quantity) {
+        return withJournaledCart(cartId, () -> {
+            CartState cart = carts.get(cartId);
+            Line line = getLine(cart, cartItemId);
+            setQuantity(cartId, cart, line, quantity);
+            return line.toDto();
+        });
+    }
+
+    @Override
+    public void removeItem(Long cartId, Long cartItemId) {
+        withJournaledCart(cartId, () -> {
+            CartState cart = carts.get(cartId);
+            getLine(cart, cartItemId);
+            journal.append(CartJournal.Entry.remove(cartId, cartItemId));
+            cart.lines.remove(cartItemId);
+            cart.dirtyItemIds.remove(cartItemId);
+            cart.removedItemIds.add(cartItemId);
+            return null;
+        });
+    }
+
+    @Override
+    public void flush(Long cartId) {
+        flushLock.lock();
+        try {
+            withLock(cartId, () -> {
+                CartChanges changes = collectChanges(cartId);
+                if (changes != null) {
+                    write(List.of(changes));
+                }
+                // marks the lines checkout is about to order, so replay never puts them back
+                journal.append(CartJournal.Entry.flush(cartId));
+                return null;
+            });
+            journal.sync();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void clear(Long cartId) {
+        jdbcTemplate.update(DELETE_CART_ITEMS, cartId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            clearFlushedLines(cartId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                clearFlushedLines(cartId);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${cart.store.flush-interval}")
+    public void flushAll() {
+        flushLock.lock();
+        try {
+            long flushedSegment = journal.rotate();
+            List<CartChanges> changes = new ArrayList<>();
+            for (Long cartId : carts.keySet()) {
+                CartChanges cartChanges = withLock(cartId, () -> collectChanges(cartId));
+                if (cartChanges != null) {
+                    changes.add(cartChanges);
+                }
+            }
+            write(changes);
+            journal.deleteUpTo(flushedSegment);
+            evictIdleCarts();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private <T> T withCart(Long cartId, Supplier<T> action) {
+        return withLock(cartId, () -> {
+            CartState cart = carts.computeIfAbsent(cartId, this::load);
+            cart.lastAccess = System.currentTimeMillis();
+            return action.get();
+        });
+    }
+
+    private <T> T withJournaledCart(Long cartId, Supplier<T> action) {
+        T result = withCart(cartId, action);
+        // synced after the stripe lock is released, one force covers every waiting change
+        journal.sync();
+        return result;
+    }
+
+    private <T> T withLock(Long cartId, Supplier<T> action) {
+        Lock lock = stripes[Math.floorMod(cartId.hashCode(), STRIPES)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CartState load(Long cartId) {
+        if (!hasCart(cartId)) {
+            throw new EntityNotFoundException(
+                    "Can't find a shopping cart for user with id " + cartId);
+        }
+        CartState cart = new CartState();
+        jdbcTemplate.query(SELECT_CART_ITEMS, rs -> {
+            Line line = new Line(rs.getLong(1), rs.getLong(2), rs.getString(3));
+            line.quantity = rs.getInt(4);
+            cart.lines.put(line.id, line);
+        }, cartId);
+        return cart;
+    }
+
+    private void setQuantity(Long cartId, CartState cart, Line line, int quantity) {
+        journal.append(CartJournal.Entry.set(cartId, line.id, line.bookId, quantity));
+        line.quantity = quantity;
+        cart.lines.put(line.id, line);
+        cart.dirtyItemIds.add(line.id);
+    }
+
+    private Line getLine(CartState cart, Long cartItemId) {
+        Line line = cart.lines.get(cartItemId);
+        if (line == null) {
+            throw new EntityNotFoundException("Can`t find cart item by id " + cartItemId);
+        }
+        return line;
+    }
+
+    private CartChanges collectChanges(Long cartId) {
+        CartState cart = carts.get(cartId);
+        if (cart == null || !cart.isDirty()) {
+            return null;
+        }
+        List<CartJournal.Entry> upserts = cart.dirtyItemIds.stream()
+                .map(cart.lines::get)
+                .map(line -> CartJournal.Entry.set(cartId, line.id, line.bookId, line.quantity))
+                .toList();
+        CartChanges changes = new CartChanges(cartId, upserts,
+                List.copyOf(cart.removedItemIds));
+        cart.dirtyItemIds.clear();
+        cart.removedItemIds.clear();
+        return changes;
+    }
+
+    private void write(List<CartChanges> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<Object[]> deletes = changes.stream()
+                .flatMap(cartChanges -> cartChanges.removedItemIds().stream())
+                .map(cartItemId -> new Object[] {cartItemId})
+                .toList();
+        List<Object[]> upserts = changes.stream()
+                .flatMap(cartChanges -> cartChanges.upserts().stream())
+                .map(entry -> new Object[] {entry.cartItemId(), entry.cartId(), entry.bookId(),
+                        entry.quantity(), entry.quantity()})
+                .toList();
+        try {
+            flushTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(DELETE_CART_ITEM, deletes);
+                jdbcTemplate.batchUpdate(UPSERT_CART_ITEM, upserts);
+            });
+        } catch (RuntimeException e) {
+            changes.forEach(this::restore);
+            throw e;
+        }
+    }
+
+    private void restore(CartChanges changes) {
+        withLock(changes.cartId(), () -> {
+            CartState cart = carts.get(changes.cartId());
+            if (cart != null) {
+                changes.upserts().stream()
+                        .map(CartJournal.Entry::cartItemId)
+                        .filter(cart.lines::containsKey)
+                        .forEach(cart.dirtyItemIds::add);
+                cart.removedItemIds.addAll(changes.removedItemIds());
+            }
+            return null;
+        });
+    }
+
+    private void clearFlushedLines(Long cartId) {
+        withLock(cartId, () -> {
+            CartState cart = carts.get(cartId);
+            if (cart != null) {
+                // lines changed after the checkout flush were not part of the order
+                cart.lines.keySet().retainAll(cart.dirtyItemIds);
+                cart.removedItemIds.clear();
+            }
+            return null;
+        });
+    }
+
+    private void evictIdleCarts() {
+        long idleSince = System.currentTimeMillis() - idleTimeoutMillis;
+        for (Long cartId : carts.keySet()) {
+            withLock(cartId, () -> {
+                CartState cart = carts.get(cartId);
+                if (cart != null && !cart.isDirty() && cart.lastAccess < idleSince) {
+                    carts.remove(cartId);
+                }
+                return null;
+            });
+        }
+    }
+
+    private void applyEntry(CartJournal.Entry entry) {
+        switch (entry.operation()) {
+            case SET -> jdbcTemplate.update(UPSERT_CART_ITEM, entry.cartItemId(),
+                    entry.cartId(), entry.bookId(), entry.quantity(), entry.quantity());
+            case REMOVE -> jdbcTemplate.update(DELETE_CART_ITEM, entry.cartItemId());
+            default -> throw new IllegalStateException("Unknown journal operation "
+                    + entry.operation());
+        }
+    }
+
+    private ShoppingCartDto toDto(Long cartId, CartState cart) {
+        Set<CartItemDto> cartItems = cart.lines.values().stream()
+                .map(Line::toDto)
+                .collect(Collectors.toSet());
+        return new ShoppingCartDto(cartId, cartId, cartItems);
+    }
+
+    private static class CartState {
+        private final Map<Long, Line> lines = new HashMap<>();
+        private final Set<Long> dirtyItemIds = new HashSet<>();
+        private final Set<Long> removedItemIds = new HashSet<>();
+        private long lastAccess;
+
+        private boolean isDirty() {
+            return !dirtyItemIds.isEmpty() || !removedItemIds.isEmpty();
+        }
+    }
+
+    private static class Line {
+        private final long id;
+        private final long bookId;
+        private final String bookTitle;
+        private int quantity;
+
+        private Line(long id, long bookId, String bookTitle) {
+            this.id = id;
+            this.bookId = bookId;
+            this.bookTitle = bookTitle;
+        }
+
+        private CartItemDto toDto() {
+            return new CartItemDto(id, bookId, bookTitle, quantity);
+        }
+    }
+
+    private record CartChanges(Long cartId, List<CartJournal.Entry> upserts,
+                               List<Long> removedItemIds) {
+    }
+}
@@ -0,0 +1,76 @@
+package bookstore.config;
+
+import bookstore.security.VerifiedTokenExpiry;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Tags;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@EnableCaching
+@Configuration
+public class CacheConfig {
+    public static final String PRINCIPALS_CACHE = "principals";
+    public static final String TOKENS_CACHE = "tokens";
+    public static final String BOOKS_CACHE = "books";
+    public static final String CATEGORIES_CACHE = "categories";
+    public static final String CATEGORY_PAGES_CACHE = "categoryPages";
+    public static final String CHECKOUTS_CACHE = "checkouts";
+
+    @Value("${cache.principals.ttl}")
+    private Duration principalsTtl;
+    @Value("${cache.principals.max-size}")
+    private long principalsMaxSize;
+    @Value("${cache.tokens.max-size}")
+    private long tokensMaxSize;
+    @Value("${cache.catalog.ttl}")
+    private Duration catalogTtl;
+    @Value("${cache.catalog.max-size}")
+    private long catalogMaxSize;
+    @Value("${cache.checkouts.ttl}")
+    private Duration checkoutsTtl;
+    @Value("${cache.checkouts.max-size}")
+    private long checkoutsMaxSize;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(PRINCIPALS_CACHE, Caffeine.newBuilder()
+                .expireAfterWrite(principalsTtl)
+                .maximumSize(principalsMaxSize)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(TOKENS_CACHE, Caffeine.newBuilder()
+                .expireAfter(new VerifiedTokenExpiry())
+                .maximumSize(tokensMaxSize)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(CHECKOUTS_CACHE, Caffeine.newBuilder()
+                .expireAfterWrite(checkoutsTtl)
+                .maximumSize(checkoutsMaxSize)
+                .recordStats()
+                .build());
+        for (String catalogCache : List.of(BOOKS_CACHE, CATEGORIES_CACHE, CATEGORY_PAGES_CACHE)) {
+            cacheManager.registerCustomCache(catalogCache, Caffeine.newBuilder()
+                    .expireAfterWrite(catalogTtl)
+                    .maximumSize(catalogMaxSize)
+                    .recordStats()
+                    .build());
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernateMetrics hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+        return new HibernateMetrics(entityManagerFactory.unwrap(SessionFactory.class),
+                "entityManagerFactory", Tags.empty());
+    }
+}
@@ -0,0 +1,83 @@
+package bookstore.config;
+
+import bookstore.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+@Configuration
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Primary
+    @Bean
+    public DataSource routingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            @Value("${datasource.routing.read-your-writes-window}") Duration readYourWritesWindow,
+            ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(
+                primaryDataSource, replicaDataSource, readYourWritesWindow,
+                () -> disableCachePuts(entityManagerFactory.getObject()));
+        routingDataSource.afterPropertiesSet();
+        // connections are taken on the first statement, once the transaction is marked read-only;
+        // JDBC metrics observe the pools instead, as they would take the connection up front
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // a lagging replica must not fill the second-level cache, its loads only read from it
+    private static void disableCachePuts(EntityManagerFactory entityManagerFactory) {
+        EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager
+                .getResource(entityManagerFactory);
+        if (holder == null) {
+            return;
+        }
+        Session session = holder.getEntityManager().unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        if (cacheMode == CacheMode.GET) {
+            return;
+        }
+        session.setCacheMode(CacheMode.GET);
+        // with open-in-view the entity manager outlives the transaction and serves later ones
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                session.setCacheMode(cacheMode);
+            }
+        });
+    }
+}
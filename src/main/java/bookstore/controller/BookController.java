@@ -1,17 +1,30 @@
 package bookstore.controller;
 
+import bookstore.dto.book.BookCursorPageDto;
 import bookstore.dto.book.BookDto;
 import bookstore.dto.book.CreateBookRequestDto;
+import bookstore.dto.book.StockDto;
+import bookstore.dto.book.UpdateStockRequestDto;
+import bookstore.importer.BookImportFormat;
+import bookstore.importer.NdjsonBookImportListener;
 import bookstore.service.BookService;
+import bookstore.service.InventoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
+import java.io.IOException;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -20,9 +33,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @Tag(name = "Book store API", description = "Endpoints for managing books")
 @RestController
@@ -31,15 +47,49 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/books")
 public class BookController {
     private final BookService bookService;
+    private final InventoryService inventoryService;
+    private final ObjectMapper objectMapper;
 
     @PreAuthorize("hasRole('USER')")
     @GetMapping
     @Operation(summary = "Get all books",
             description = "Get a list of all available books")
-    public List<BookDto> getAll(@PageableDefault Pageable pageable) {
+    public List<BookDto> getAll(@PageableDefault Pageable pageable, WebRequest request) {
+        if (request.checkNotModified(EntityTags.of(pageable,
+                bookService.getVersionTag(pageable)))) {
+            return null;
+        }
         return bookService.findAll(pageable);
     }
 
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get books by cursor",
+            description = "Get a page of books after the given cursor without counting "
+                    + "the catalog; pass an empty cursor for the first page")
+    public BookCursorPageDto getAllByCursor(@RequestParam String cursor,
+                                            @PageableDefault Pageable pageable) {
+        return bookService.findAllByCursor(cursor, pageable);
+    }
+
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping(value = "/export", produces = NdjsonResponses.MEDIA_TYPE)
+    @Operation(summary = "Export all books",
+            description = "Stream the whole catalog as NDJSON, one book per line")
+    public void exportAll(HttpServletResponse response) throws IOException {
+        NdjsonResponses.write(response, objectMapper, bookService::exportAll);
+    }
+
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/search")
+    @Operation(summary = "Search books",
+            description = "Search books by title, author, isbn and description, "
+                    + "best matches first; words may be prefixes")
+    public List<BookDto> search(@RequestParam @NotBlank String q,
+                                @PageableDefault Pageable pageable) {
+        return bookService.search(q, pageable);
+    }
+
     @ResponseStatus(HttpStatus.CREATED)
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping
@@ -48,11 +98,30 @@ public class BookController {
         return bookService.save(requestDto);
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = {"text/csv", NdjsonResponses.MEDIA_TYPE},
+            produces = NdjsonResponses.MEDIA_TYPE)
+    @Operation(summary = "Import books",
+            description = "Create or update books by isbn from a CSV or NDJSON upload; "
+                    + "streams per-row errors and progress as NDJSON")
+    public void importBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        BookImportFormat format = BookImportFormat.of(contentType);
+        response.setContentType(NdjsonResponses.MEDIA_TYPE);
+        bookService.importBooks(request.getInputStream(), format,
+                new NdjsonBookImportListener(response.getWriter(), objectMapper));
+    }
+
     @PreAuthorize("hasRole('USER')")
     @GetMapping("/{id}")
     @Operation(summary = "Get a book by id", description = "Get a book by id")
-    public BookDto getBookById(@PathVariable @Positive Long id) {
-        return bookService.getById(id);
+    public BookDto getBookById(@PathVariable @Positive Long id, WebRequest request) {
+        BookDto book = bookService.getById(id);
+        if (request.checkNotModified(EntityTags.of(book.id(), book.version()))) {
+            return null;
+        }
+        return book;
     }
 
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -71,4 +140,22 @@ public class BookController {
             @RequestBody @Valid CreateBookRequestDto requestDto) {
         return bookService.updateById(id, requestDto);
     }
+
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/{id}/stock")
+    @Operation(summary = "Get the stock of a book",
+            description = "Get the quantity of a book that is available for new orders")
+    public StockDto getStock(@PathVariable @Positive Long id) {
+        return inventoryService.getStock(id);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/{id}/stock")
+    @Operation(summary = "Set the stock of a book",
+            description = "Set the quantity of a book that is available for new orders; "
+                    + "quantities reserved by pending orders are not included")
+    public StockDto updateStock(@PathVariable @Positive Long id,
+                                @RequestBody @Valid UpdateStockRequestDto requestDto) {
+        return inventoryService.updateStock(id, requestDto);
+    }
 }
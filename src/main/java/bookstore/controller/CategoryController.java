@@ -25,6 +25,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @Tag(name = "Categories API", description = "Endpoints for managing categories")
 @RestController
@@ -47,15 +48,23 @@ public class CategoryController {
     @Operation(summary = "Get all categories",
             description = "Get a list of all available categories")
     @GetMapping
-    public List<CategoryDto> getAll(@PageableDefault Pageable pageable) {
+    public List<CategoryDto> getAll(@PageableDefault Pageable pageable, WebRequest request) {
+        if (request.checkNotModified(EntityTags.of(pageable,
+                categoryService.getVersionTag(pageable)))) {
+            return null;
+        }
         return categoryService.findAll(pageable);
     }
 
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Get a category by id", description = "Get a category by id")
     @GetMapping("/{id}")
-    public CategoryDto getCategoryById(@PathVariable @Positive Long id) {
-        return categoryService.getById(id);
+    public CategoryDto getCategoryById(@PathVariable @Positive Long id, WebRequest request) {
+        CategoryDto category = categoryService.getById(id);
+        if (request.checkNotModified(EntityTags.of(category.id(), category.version()))) {
+            return null;
+        }
+        return category;
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -80,7 +89,12 @@ public class CategoryController {
     @Operation(summary = "Get all books by category id",
             description = "Get a list of all books by category id")
     @GetMapping(value = "/{id}/books")
-    public List<BookDtoWithoutCategoryIds> getBooksByCategoryId(@PathVariable @Positive Long id) {
+    public List<BookDtoWithoutCategoryIds> getBooksByCategoryId(@PathVariable @Positive Long id,
+                                                                WebRequest request) {
+        if (request.checkNotModified(EntityTags.of(id,
+                bookService.getVersionTagByCategoryId(id)))) {
+            return null;
+        }
         return bookService.findAllByCategoryId(id);
     }
 }
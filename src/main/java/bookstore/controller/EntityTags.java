@@ -0,0 +1,15 @@
+package bookstore.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.springframework.util.DigestUtils;
+
+final class EntityTags {
+    private EntityTags() {
+    }
+
+    static String of(Object... parts) {
+        return "\"" + DigestUtils.md5DigestAsHex(Arrays.toString(parts)
+                .getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,32 @@
+package bookstore.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+final class NdjsonResponses {
+    static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private NdjsonResponses() {
+    }
+
+    static <T> void write(HttpServletResponse response, ObjectMapper objectMapper,
+                          Consumer<Consumer<T>> producer) throws IOException {
+        response.setContentType(MEDIA_TYPE);
+        ObjectWriter writer = objectMapper.writer();
+        ServletOutputStream output = response.getOutputStream();
+        producer.accept(value -> {
+            try {
+                output.write(writer.writeValueAsBytes(value));
+                output.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        output.flush();
+    }
+}
@@ -1,24 +1,40 @@
 package bookstore.controller;
 
+import bookstore.dto.order.BulkUpdateOrderStatusRequestDto;
 import bookstore.dto.order.CreateOrderRequestDto;
 import bookstore.dto.order.OrderDto;
+import bookstore.dto.order.OrderSearchParametersDto;
+import bookstore.dto.order.OrderStatusUpdateResultDto;
+import bookstore.dto.order.OrderSummaryDto;
 import bookstore.dto.order.UpdateOrderRequestDto;
 import bookstore.dto.orderitem.OrderItemDto;
+import bookstore.model.User;
+import bookstore.order.IdempotentCheckouts;
 import bookstore.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import java.io.IOException;
+import java.util.List;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
@@ -29,23 +45,55 @@ import org.springframework.web.bind.annotation.RestController;
 @Validated
 @RequestMapping("/orders")
 public class OrderController {
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final OrderService orderService;
+    private final IdempotentCheckouts idempotentCheckouts;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(summary = "Create a new order",
-            description = "Create a new order")
+            description = "Create a new order from the shopping cart; a retry with the same "
+                    + "Idempotency-Key header returns the order created by the first request")
     @PreAuthorize("hasRole('USER')")
-    public OrderDto createOrder(@RequestBody @Valid CreateOrderRequestDto requestDto) {
-        return orderService.createOrder(requestDto);
+    public OrderDto createOrder(
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false)
+            @Size(max = 255) String idempotencyKey,
+            @RequestBody @Valid CreateOrderRequestDto requestDto) {
+        if (idempotencyKey == null) {
+            return orderService.createOrder(requestDto);
+        }
+        return idempotentCheckouts.createOrder(getUserId(), idempotencyKey, requestDto,
+                () -> orderService.createOrder(requestDto));
     }
 
     @GetMapping
-    @Operation(summary = "Get all orders",
-            description = "Get a set of orders of user")
+    @Operation(summary = "Get orders",
+            description = "Get a page of orders of user, newest first, optionally filtered "
+                    + "by status and an order date range [from, to)")
+    @PreAuthorize("hasRole('USER')")
+    public List<OrderDto> getOrdersByUserId(OrderSearchParametersDto searchParameters,
+                                            @PageableDefault Pageable pageable) {
+        return orderService.getOrders(searchParameters, pageable);
+    }
+
+    @GetMapping(params = "view=summary")
+    @Operation(summary = "Get order summaries",
+            description = "Get a page of order summaries of user without their items, "
+                    + "with the same ordering and filters as the orders list")
+    @PreAuthorize("hasRole('USER')")
+    public List<OrderSummaryDto> getOrderSummaries(OrderSearchParametersDto searchParameters,
+                                                   @PageableDefault Pageable pageable) {
+        return orderService.getOrderSummaries(searchParameters, pageable);
+    }
+
+    @GetMapping(value = "/export", produces = NdjsonResponses.MEDIA_TYPE)
+    @Operation(summary = "Export all orders",
+            description = "Stream the order history of user as NDJSON, one order per line")
     @PreAuthorize("hasRole('USER')")
-    public Set<OrderDto> getOrdersByUserId() {
-        return orderService.getOrders();
+    public void exportOrders(HttpServletResponse response) throws IOException {
+        NdjsonResponses.write(response, objectMapper, orderService::exportOrders);
     }
 
     @PatchMapping("/{orderId}")
@@ -57,6 +105,17 @@ public class OrderController {
         return orderService.updateOrder(orderId, requestDto);
     }
 
+    @PatchMapping("/status")
+    @Operation(summary = "Update statuses of orders",
+            description = "Move a list of orders to one status in batches and return the "
+                    + "outcome for every order; orders that can`t make the transition are "
+                    + "reported and left as they are")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<OrderStatusUpdateResultDto> updateOrderStatuses(
+            @Valid @RequestBody BulkUpdateOrderStatusRequestDto requestDto) {
+        return orderService.updateOrders(requestDto);
+    }
+
     @GetMapping("/{orderId}/items")
     @Operation(summary = "Get orders from an order",
             description = "Get a set of order items from an specific order")
@@ -73,4 +132,9 @@ public class OrderController {
                                                    @PathVariable @Positive Long itemId) {
         return orderService.getOrderItemFromOrder(orderId, itemId);
     }
+
+    private static Long getUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return ((User) authentication.getPrincipal()).getId();
+    }
 }
@@ -55,7 +55,7 @@ public class ShoppingCartController {
             description = "Delete a cart item by id")
     @DeleteMapping("/cart-items/{cartItemId}")
     public void deleteCartItem(@Positive @PathVariable Long cartItemId) {
-        shoppingCartService.deleteCartItem(cartItemId);
+        shoppingCartService.deleteCartItem(getUserId(), cartItemId);
     }
 
     @PreAuthorize("hasRole('USER')")
@@ -0,0 +1,136 @@
+package bookstore.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private static final long MAX_RECENT_WRITERS = 100000;
+
+    private final Cache<String, Boolean> recentWriters;
+    private final Runnable replicaReadListener;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica,
+                                    Duration readYourWritesWindow,
+                                    Runnable replicaReadListener) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .maximumSize(MAX_RECENT_WRITERS)
+                .build();
+        this.replicaReadListener = replicaReadListener;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return recordWrites(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return recordWrites(super.getConnection(username, password));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Route.PRIMARY;
+        }
+        String username = getUsername();
+        // users read from the primary until the replica has had time to catch up with their writes
+        if (username != null && recentWriters.getIfPresent(username) != null) {
+            return Route.PRIMARY;
+        }
+        replicaReadListener.run();
+        return Route.REPLICA;
+    }
+
+    // read-write transactions that only read, like cache loads, must not pin users to the primary
+    private Connection recordWrites(Connection connection) {
+        String username = getUsername();
+        if (username == null || !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new WriteRecorder(connection, username));
+    }
+
+    private void rememberWriterAfterCommit(String username) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(username, Boolean.TRUE);
+            }
+        });
+    }
+
+    private String getUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static boolean isWrite(Method method, Object[] args) {
+        return switch (method.getName()) {
+            // the SQL of a plain statement is only known once executed, so it counts as a write
+            case "createStatement" -> true;
+            case "prepareStatement", "prepareCall" ->
+                    !((String) args[0]).stripLeading().regionMatches(true, 0, "select", 0, 6);
+            default -> false;
+        };
+    }
+
+    private final class WriteRecorder implements InvocationHandler {
+        private final Connection target;
+        private final String username;
+        private boolean writing;
+
+        private WriteRecorder(Connection target, String username) {
+            this.target = target;
+            this.username = username;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (!writing && isWrite(method, args)) {
+                writing = true;
+                rememberWriterAfterCommit(username);
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+
+    private enum Route {
+        PRIMARY,
+        REPLICA
+    }
+}
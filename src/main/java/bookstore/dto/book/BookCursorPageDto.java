@@ -0,0 +1,9 @@
+package bookstore.dto.book;
+
+import java.util.List;
+
+public record BookCursorPageDto(
+        List<BookDto> content,
+        String nextCursor
+) {
+}
@@ -1,19 +1,23 @@
 package bookstore.dto.book;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.math.BigDecimal;
 import java.util.List;
-import lombok.Getter;
-import lombok.Setter;
 
-@Setter
-@Getter
-public class BookDto {
-    private Long id;
-    private String title;
-    private String author;
-    private String isbn;
-    private BigDecimal price;
-    private String description;
-    private String coverImage;
-    private List<Long> categoryIds;
+public record BookDto(
+        Long id,
+        String title,
+        String author,
+        String isbn,
+        BigDecimal price,
+        String description,
+        String coverImage,
+        List<Long> categoryIds,
+        @JsonIgnore
+        Long version
+) {
+    public BookDto {
+        // instances are shared through the books cache, so the list must not change
+        categoryIds = categoryIds == null ? List.of() : List.copyOf(categoryIds);
+    }
 }
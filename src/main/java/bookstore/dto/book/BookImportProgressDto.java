@@ -0,0 +1,5 @@
+package bookstore.dto.book;
+
+public record BookImportProgressDto(long processed, long imported, long failed,
+                                    boolean completed) {
+}
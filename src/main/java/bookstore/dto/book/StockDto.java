@@ -0,0 +1,4 @@
+package bookstore.dto.book;
+
+public record StockDto(Long bookId, Integer available) {
+}
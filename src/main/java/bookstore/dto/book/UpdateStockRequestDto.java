@@ -0,0 +1,7 @@
+package bookstore.dto.book;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+public record UpdateStockRequestDto(@PositiveOrZero @NotNull Integer available) {
+}
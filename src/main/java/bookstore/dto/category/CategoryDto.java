@@ -1,7 +1,11 @@
 package bookstore.dto.category;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public record CategoryDto(
         Long id,
         String name,
-        String description){
+        String description,
+        @JsonIgnore
+        Long version){
 }
@@ -0,0 +1,14 @@
+package bookstore.dto.order;
+
+import bookstore.model.Order;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record BulkUpdateOrderStatusRequestDto(
+        @NotEmpty @Size(max = 100000) List<@NotNull @Positive Long> orderIds,
+        @NotNull Order.Status status
+) {
+}
@@ -11,6 +11,9 @@ public record OrderDto(
         Set<OrderItemDto> orderItems,
         LocalDateTime orderDate,
         BigDecimal total,
-        String status
+        String status,
+        LocalDateTime deliveredAt,
+        LocalDateTime completedAt,
+        LocalDateTime cancelledAt
 ) {
 }
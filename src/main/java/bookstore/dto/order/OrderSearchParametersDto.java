@@ -0,0 +1,14 @@
+package bookstore.dto.order;
+
+import bookstore.model.Order;
+import java.time.LocalDateTime;
+import org.springframework.format.annotation.DateTimeFormat;
+
+public record OrderSearchParametersDto(
+        Order.Status status,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        LocalDateTime from,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        LocalDateTime to
+) {
+}
@@ -0,0 +1,11 @@
+package bookstore.dto.order;
+
+public record OrderStatusUpdateResultDto(Long orderId, String status, Outcome outcome) {
+    public enum Outcome {
+        UPDATED,
+        UNCHANGED,
+        NOT_FOUND,
+        INVALID_TRANSITION,
+        FAILED
+    }
+}
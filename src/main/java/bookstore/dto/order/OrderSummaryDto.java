@@ -0,0 +1,15 @@
+package bookstore.dto.order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record OrderSummaryDto(
+        Long id,
+        Long userId,
+        LocalDateTime orderDate,
+        BigDecimal total,
+        int itemCount,
+        int totalQuantity,
+        String status
+) {
+}
@@ -1,7 +1,7 @@
 package bookstore.dto.order;
 
-import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Size;
+import bookstore.model.Order;
+import jakarta.validation.constraints.NotNull;
 
-public record UpdateOrderRequestDto(@NotBlank @Size(max = 30) String status) {
+public record UpdateOrderRequestDto(@NotNull Order.Status status) {
 }
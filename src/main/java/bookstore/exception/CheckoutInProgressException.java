@@ -0,0 +1,7 @@
+package bookstore.exception;
+
+public class CheckoutInProgressException extends RuntimeException {
+    public CheckoutInProgressException(String message) {
+        super(message);
+    }
+}
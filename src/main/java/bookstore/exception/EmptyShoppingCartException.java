@@ -0,0 +1,7 @@
+package bookstore.exception;
+
+public class EmptyShoppingCartException extends RuntimeException {
+    public EmptyShoppingCartException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package bookstore.exception;
+
+public class InvalidOrderStatusTransitionException extends RuntimeException {
+    public InvalidOrderStatusTransitionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package bookstore.exception;
+
+import org.springframework.dao.PessimisticLockingFailureException;
+
+public class StockContentionException extends PessimisticLockingFailureException {
+    public StockContentionException(String message) {
+        super(message);
+    }
+}
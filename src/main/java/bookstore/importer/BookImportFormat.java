@@ -0,0 +1,24 @@
+package bookstore.importer;
+
+import bookstore.exception.BookImportException;
+import java.util.Arrays;
+import org.springframework.http.MediaType;
+
+public enum BookImportFormat {
+    CSV(MediaType.valueOf("text/csv")),
+    NDJSON(MediaType.valueOf("application/x-ndjson"));
+
+    private final MediaType mediaType;
+
+    BookImportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public static BookImportFormat of(MediaType contentType) {
+        return Arrays.stream(values())
+                .filter(format -> format.mediaType.isCompatibleWith(contentType))
+                .findFirst()
+                .orElseThrow(() -> new BookImportException(
+                        "Unsupported import format " + contentType));
+    }
+}
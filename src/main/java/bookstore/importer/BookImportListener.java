@@ -0,0 +1,10 @@
+package bookstore.importer;
+
+import bookstore.dto.book.BookImportErrorDto;
+import bookstore.dto.book.BookImportProgressDto;
+
+public interface BookImportListener {
+    void onError(BookImportErrorDto error);
+
+    void onProgress(BookImportProgressDto progress);
+}
@@ -0,0 +1,205 @@
+package bookstore.importer;
+
+import bookstore.dto.book.BookImportErrorDto;
+import bookstore.dto.book.BookImportProgressDto;
+import bookstore.dto.book.CreateBookRequestDto;
+import bookstore.exception.BookImportException;
+import bookstore.model.Book;
+import bookstore.repository.CategoryRepository;
+import bookstore.search.BookSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@RequiredArgsConstructor
+@Component
+public class BookImporter {
+    private static final String BOOK_CATEGORIES_ROLE = Book.class.getName() + ".categories";
+    private static final String UPSERT_BOOK = "INSERT INTO books "
+            + "(title, author, isbn, price, description, cover_image, is_deleted, version) "
+            + "VALUES (:title, :author, :isbn, :price, :description, :coverImage, false, 0) "
+            + "ON DUPLICATE KEY UPDATE title = :title, author = :author, price = :price, "
+            + "description = :description, cover_image = :coverImage, is_deleted = false, "
+            + "version = version + 1";
+    private static final String SELECT_BOOK_IDS =
+            "SELECT id, isbn FROM books WHERE isbn IN (:isbns)";
+    private static final String DELETE_BOOK_CATEGORIES =
+            "DELETE FROM books_categories WHERE book_id IN (:bookIds)";
+    private static final String INSERT_BOOK_CATEGORY =
+            "INSERT INTO books_categories (book_id, category_id) VALUES (:bookId, :categoryId)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoryRepository categoryRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${books.import.batch-size}")
+    private int batchSize;
+
+    public BookImportProgressDto importBooks(InputStream input, BookImportFormat format,
+                                             BookImportListener listener) {
+        Set<Long> categoryIds = categoryRepository.findAllIds();
+        Progress progress = new Progress();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            BookRowReader rows = format == BookImportFormat.CSV
+                    ? new CsvBookRowReader(reader)
+                    : new NdjsonBookRowReader(reader, objectMapper);
+            Map<String, BookRow> batch = new LinkedHashMap<>();
+            for (BookRow row = rows.next(); row != null; row = rows.next()) {
+                progress.processed++;
+                String error = row.error() != null ? row.error() : validate(row, categoryIds);
+                if (error != null) {
+                    progress.fail(listener, row, error);
+                    continue;
+                }
+                BookRow duplicate = batch.put(row.book().isbn(), row);
+                if (duplicate != null) {
+                    progress.fail(listener, duplicate, "Superseded by row " + row.number());
+                }
+                if (batch.size() == batchSize) {
+                    importBatch(batch, progress, listener);
+                }
+            }
+            importBatch(batch, progress, listener);
+        } catch (IOException e) {
+            throw new BookImportException("Can`t read import stream", e);
+        }
+        BookImportProgressDto result = progress.toDto(true);
+        listener.onProgress(result);
+        return result;
+    }
+
+    private String validate(BookRow row, Set<Long> categoryIds) {
+        Set<ConstraintViolation<CreateBookRequestDto>> violations =
+                validator.validate(row.book());
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " "
+                            + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (row.book().categoryIds() != null
+                && !categoryIds.containsAll(row.book().categoryIds())) {
+            return "Unknown category ids " + row.book().categoryIds().stream()
+                    .filter(id -> !categoryIds.contains(id))
+                    .sorted()
+                    .toList();
+        }
+        return null;
+    }
+
+    private void importBatch(Map<String, BookRow> batch, Progress progress,
+                             BookImportListener listener) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<BookRow> rows = new ArrayList<>(batch.values());
+        batch.clear();
+        try {
+            Map<String, Long> ids = transactionTemplate.execute(status -> upsert(rows));
+            Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+            for (BookRow row : rows) {
+                Long id = ids.get(row.book().isbn());
+                cache.evictCollectionData(BOOK_CATEGORIES_ROLE, id);
+                bookSearchIndex.index(toBook(id, row.book()));
+            }
+            progress.imported += rows.size();
+        } catch (DataAccessException e) {
+            rows.sort(Comparator.comparingLong(BookRow::number));
+            for (BookRow row : rows) {
+                progress.fail(listener, row, "Batch failed: " + e.getMostSpecificCause()
+                        .getMessage());
+            }
+        }
+        listener.onProgress(progress.toDto(false));
+    }
+
+    private Map<String, Long> upsert(List<BookRow> rows) {
+        jdbcTemplate.batchUpdate(UPSERT_BOOK, rows.stream()
+                .map(row -> toParameters(row.book()))
+                .toArray(SqlParameterSource[]::new));
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query(SELECT_BOOK_IDS,
+                new MapSqlParameterSource("isbns", rows.stream()
+                        .map(row -> row.book().isbn())
+                        .toList()),
+                resultSet -> {
+                    ids.put(resultSet.getString("isbn"), resultSet.getLong("id"));
+                });
+        jdbcTemplate.update(DELETE_BOOK_CATEGORIES,
+                new MapSqlParameterSource("bookIds", ids.values()));
+        jdbcTemplate.batchUpdate(INSERT_BOOK_CATEGORY, rows.stream()
+                .filter(row -> row.book().categoryIds() != null)
+                .flatMap(row -> row.book().categoryIds().stream()
+                        .map(categoryId -> new MapSqlParameterSource()
+                                .addValue("bookId", ids.get(row.book().isbn()))
+                                .addValue("categoryId", categoryId)))
+                .toArray(SqlParameterSource[]::new));
+        return ids;
+    }
+
+    private static SqlParameterSource toParameters(CreateBookRequestDto book) {
+        return new MapSqlParameterSource()
+                .addValue("title", book.title())
+                .addValue("author", book.author())
+                .addValue("isbn", book.isbn())
+                .addValue("price", book.price())
+                .addValue("description", book.description())
+                .addValue("coverImage", book.coverImage());
+    }
+
+    private static Book toBook(Long id, CreateBookRequestDto requestDto) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(requestDto.title());
+        book.setAuthor(requestDto.author());
+        book.setIsbn(requestDto.isbn());
+        book.setDescription(requestDto.description());
+        return book;
+    }
+
+    private static class Progress {
+        private long processed;
+        private long imported;
+        private long failed;
+
+        private void fail(BookImportListener listener, BookRow row, String message) {
+            failed++;
+            listener.onError(new BookImportErrorDto(row.number(),
+                    row.book() == null ? null : row.book().isbn(), message));
+        }
+
+        private BookImportProgressDto toDto(boolean completed) {
+            return new BookImportProgressDto(processed, imported, failed, completed);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package bookstore.importer;
+
+import bookstore.dto.book.CreateBookRequestDto;
+
+record BookRow(long number, CreateBookRequestDto book, String error) {
+    static BookRow valid(long number, CreateBookRequestDto book) {
+        return new BookRow(number, book, null);
+    }
+
+    static BookRow invalid(long number, String error) {
+        return new BookRow(number, null, error);
+    }
+}
@@ -0,0 +1,7 @@
+package bookstore.importer;
+
+import java.io.IOException;
+
+interface BookRowReader {
+    BookRow next() throws IOException;
+}
@@ -0,0 +1,134 @@
+package bookstore.importer;
+
+import bookstore.dto.book.CreateBookRequestDto;
+import bookstore.exception.BookImportException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+class CsvBookRowReader implements BookRowReader {
+    private static final char BYTE_ORDER_MARK = '﻿';
+    private static final String CATEGORY_SEPARATOR = ";";
+    private static final List<String> REQUIRED_COLUMNS = List.of("title", "author", "isbn",
+            "price");
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long row;
+
+    CsvBookRowReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new BookImportException("CSV header is missing");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim().toLowerCase(Locale.ROOT);
+            columns.put(i == 0 ? stripByteOrderMark(column) : column, i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new BookImportException("CSV header has no '" + required + "' column");
+            }
+        }
+    }
+
+    @Override
+    public BookRow next() throws IOException {
+        List<String> fields;
+        do {
+            fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+        row++;
+        try {
+            return BookRow.valid(row, new CreateBookRequestDto(
+                    field(fields, "title"),
+                    field(fields, "author"),
+                    field(fields, "isbn"),
+                    toPrice(field(fields, "price")),
+                    field(fields, "description"),
+                    field(fields, "coverimage"),
+                    toCategoryIds(field(fields, "categoryids"))));
+        } catch (NumberFormatException e) {
+            return BookRow.invalid(row, "Malformed number: " + e.getMessage());
+        }
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int next = reader.read();
+        if (next == -1) {
+            return null;
+        }
+        while (next != -1) {
+            char ch = (char) next;
+            if (quoted) {
+                if (ch != '"') {
+                    field.append(ch);
+                } else {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n') {
+                break;
+            } else if (ch != '\r') {
+                field.append(ch);
+            }
+            next = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String stripByteOrderMark(String column) {
+        return !column.isEmpty() && column.charAt(0) == BYTE_ORDER_MARK
+                ? column.substring(1)
+                : column;
+    }
+
+    private static BigDecimal toPrice(String price) {
+        return price == null ? null : new BigDecimal(price.trim());
+    }
+
+    private static Set<Long> toCategoryIds(String categoryIds) {
+        if (categoryIds == null || categoryIds.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(categoryIds.split(CATEGORY_SEPARATOR))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .map(Long::valueOf)
+                .collect(Collectors.toSet());
+    }
+}
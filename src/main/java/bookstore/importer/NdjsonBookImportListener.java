@@ -0,0 +1,42 @@
+package bookstore.importer;
+
+import bookstore.dto.book.BookImportErrorDto;
+import bookstore.dto.book.BookImportProgressDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+public class NdjsonBookImportListener implements BookImportListener {
+    private final Writer writer;
+    private final ObjectMapper objectMapper;
+
+    public NdjsonBookImportListener(Writer writer, ObjectMapper objectMapper) {
+        this.writer = writer;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void onError(BookImportErrorDto error) {
+        write(error);
+    }
+
+    @Override
+    public void onProgress(BookImportProgressDto progress) {
+        write(progress);
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(Object value) {
+        try {
+            writer.write(objectMapper.writeValueAsString(value));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
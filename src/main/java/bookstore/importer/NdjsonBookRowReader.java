@@ -0,0 +1,35 @@
+package bookstore.importer;
+
+import bookstore.dto.book.CreateBookRequestDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+
+class NdjsonBookRowReader implements BookRowReader {
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long row;
+
+    NdjsonBookRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public BookRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+        row++;
+        try {
+            return BookRow.valid(row, objectMapper.readValue(line, CreateBookRequestDto.class));
+        } catch (JsonProcessingException e) {
+            return BookRow.invalid(row, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+}
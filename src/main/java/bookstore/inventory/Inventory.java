@@ -0,0 +1,275 @@
+package bookstore.inventory;
+
+import bookstore.exception.InsufficientStockException;
+import bookstore.exception.StockContentionException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class Inventory {
+    private static final String SELECT_STOCK = "SELECT book_id, stripe, quantity "
+            + "FROM book_stock WHERE book_id IN (:bookIds)";
+    private static final String SELECT_BOOK_STOCK =
+            "SELECT stripe, quantity FROM book_stock WHERE book_id = ? ORDER BY stripe";
+    private static final String LOCK_BOOK_STOCK = "SELECT stripe, quantity FROM book_stock "
+            + "WHERE book_id = ? AND stripe >= ? ORDER BY stripe FOR UPDATE";
+    private static final String SUM_BOOK_STOCK =
+            "SELECT SUM(quantity) FROM book_stock WHERE book_id = ?";
+    private static final String TAKE_STOCK = "UPDATE book_stock SET quantity = quantity - ? "
+            + "WHERE book_id = ? AND stripe = ? AND quantity >= ?";
+    private static final String RETURN_STOCK = "UPDATE book_stock SET quantity = quantity + ? "
+            + "WHERE book_id = ? AND stripe = ?";
+    private static final String UPSERT_STOCK = "INSERT INTO book_stock (book_id, stripe, quantity) "
+            + "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE quantity = ?";
+    private static final String DELETE_UNUSED_STRIPES =
+            "DELETE FROM book_stock WHERE book_id = ? AND stripe >= ?";
+    private static final String INSERT_RESERVATION = "INSERT INTO stock_reservations "
+            + "(order_id, book_id, stripe, quantity) VALUES (?, ?, ?, ?)";
+    private static final String LOCK_RESERVATIONS = "SELECT book_id, stripe, quantity "
+            + "FROM stock_reservations WHERE order_id IN (:orderIds) "
+            + "ORDER BY book_id, stripe, order_id FOR UPDATE";
+    private static final String DELETE_RESERVATIONS =
+            "DELETE FROM stock_reservations WHERE order_id IN (:orderIds)";
+    private static final RowMapper<StockStripe> STOCK_STRIPE_MAPPER = (rs, rowNum) ->
+            new StockStripe(rs.getInt("stripe"), rs.getInt("quantity"));
+    private static final RowMapper<Reservation> RESERVATION_MAPPER = (rs, rowNum) ->
+            new Reservation(rs.getLong("book_id"), rs.getInt("stripe"), rs.getInt("quantity"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final StockCounters counters;
+    private final int stripes;
+
+    public Inventory(JdbcTemplate jdbcTemplate,
+                     NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                     @Value("${inventory.stripes}") int stripes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.counters = new StockCounters(stripes);
+        this.stripes = stripes;
+    }
+
+    @Transactional(readOnly = true)
+    public Integer getAvailable(Long bookId) {
+        // null for a book whose stock was never set, checkout does not track it
+        return jdbcTemplate.queryForObject(SUM_BOOK_STOCK, Integer.class, bookId);
+    }
+
+    @Transactional
+    public void setAvailable(Long bookId, int quantity) {
+        List<StockStripe> stock = new ArrayList<>();
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            stock.add(new StockStripe(stripe,
+                    quantity / stripes + (stripe < quantity % stripes ? 1 : 0)));
+        }
+        jdbcTemplate.batchUpdate(UPSERT_STOCK, stock, stripes, (ps, stockStripe) -> {
+            ps.setLong(1, bookId);
+            ps.setInt(2, stockStripe.stripe());
+            ps.setInt(3, stockStripe.quantity());
+            ps.setInt(4, stockStripe.quantity());
+        });
+        jdbcTemplate.update(DELETE_UNUSED_STRIPES, bookId, stripes);
+        invalidateAfterCompletion(List.of(bookId), false);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(Long orderId, Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        List<Long> bookIds = quantities.keySet().stream().sorted().toList();
+        Set<Long> untracked = loadCounters(bookIds);
+        invalidateAfterCompletion(bookIds, true);
+        // stock rows are locked in (book, stripe) order, so that checkouts cannot deadlock
+        List<Reservation> reservations = new ArrayList<>();
+        List<Reservation> attempts = new ArrayList<>();
+        for (Long bookId : bookIds) {
+            if (untracked.contains(bookId)) {
+                continue;
+            }
+            int quantity = quantities.get(bookId);
+            int stripe = counters.pickStripe(bookId, quantity);
+            if (stripe == StockCounters.NO_STRIPE) {
+                reservations.addAll(takeFromSingleStripes(attempts));
+                attempts.clear();
+                reservations.addAll(takeAcrossStripes(bookId, quantity, 0));
+            } else {
+                attempts.add(new Reservation(bookId, stripe, quantity));
+            }
+        }
+        reservations.addAll(takeFromSingleStripes(attempts));
+        jdbcTemplate.batchUpdate(INSERT_RESERVATION, reservations, reservations.size(),
+                (ps, reservation) -> {
+                    ps.setLong(1, orderId);
+                    ps.setLong(2, reservation.bookId());
+                    ps.setInt(3, reservation.stripe());
+                    ps.setInt(4, reservation.quantity());
+                });
+    }
+
+    @Transactional
+    public void release(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        Map<String, Collection<Long>> parameters = Map.of("orderIds", orderIds);
+        List<Reservation> reservations = namedParameterJdbcTemplate.query(LOCK_RESERVATIONS,
+                parameters, RESERVATION_MAPPER);
+        if (reservations.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(RETURN_STOCK, reservations, reservations.size(),
+                (ps, reservation) -> {
+                    ps.setInt(1, reservation.quantity());
+                    ps.setLong(2, reservation.bookId());
+                    ps.setInt(3, reservation.stripe());
+                });
+        namedParameterJdbcTemplate.update(DELETE_RESERVATIONS, parameters);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reservations.forEach(reservation -> counters.add(reservation.bookId(),
+                        reservation.stripe(), reservation.quantity()));
+            }
+        });
+    }
+
+    @Transactional
+    public void confirm(Collection<Long> orderIds) {
+        if (!orderIds.isEmpty()) {
+            namedParameterJdbcTemplate.update(DELETE_RESERVATIONS, Map.of("orderIds", orderIds));
+        }
+    }
+
+    private List<Reservation> takeFromSingleStripes(List<Reservation> attempts) {
+        if (attempts.isEmpty()) {
+            return List.of();
+        }
+        int[][] updated = jdbcTemplate.batchUpdate(TAKE_STOCK, attempts, attempts.size(),
+                (ps, attempt) -> {
+                    ps.setInt(1, attempt.quantity());
+                    ps.setLong(2, attempt.bookId());
+                    ps.setInt(3, attempt.stripe());
+                    ps.setInt(4, attempt.quantity());
+                });
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < attempts.size(); i++) {
+            Reservation attempt = attempts.get(i);
+            if (updated[0][i] == 1) {
+                counters.add(attempt.bookId(), attempt.stripe(), -attempt.quantity());
+                reservations.add(attempt);
+            } else if (i == attempts.size() - 1) {
+                // a failed update still locks its row, so the fallback goes on from that stripe
+                reservations.addAll(takeAcrossStripes(attempt.bookId(), attempt.quantity(),
+                        attempt.stripe()));
+            } else {
+                // rows of the books after it are locked already
+                throw stockContention(attempt.bookId());
+            }
+        }
+        return reservations;
+    }
+
+    private List<Reservation> takeAcrossStripes(Long bookId, int quantity, int fromStripe) {
+        // a plain read first, so that sold out titles are rejected without taking row locks
+        List<StockStripe> stock = jdbcTemplate.query(SELECT_BOOK_STOCK, STOCK_STRIPE_MAPPER,
+                bookId);
+        if (stock.isEmpty()) {
+            return List.of();
+        }
+        counters.load(bookId, stock);
+        if (sum(stock, 0) < quantity) {
+            throw insufficientStock(bookId, quantity, sum(stock, 0));
+        }
+        if (sum(stock, fromStripe) < quantity) {
+            throw stockContention(bookId);
+        }
+        List<StockStripe> locked = jdbcTemplate.query(LOCK_BOOK_STOCK, STOCK_STRIPE_MAPPER,
+                bookId, fromStripe);
+        if (sum(locked, fromStripe) < quantity) {
+            throw fromStripe == 0
+                    ? insufficientStock(bookId, quantity, sum(locked, 0))
+                    : stockContention(bookId);
+        }
+        List<Reservation> reservations = new ArrayList<>();
+        int remaining = quantity;
+        for (StockStripe stockStripe : locked) {
+            int taken = Math.min(remaining, stockStripe.quantity());
+            if (taken > 0) {
+                jdbcTemplate.update(TAKE_STOCK, taken, bookId, stockStripe.stripe(), taken);
+                counters.add(bookId, stockStripe.stripe(), -taken);
+                reservations.add(new Reservation(bookId, stockStripe.stripe(), taken));
+                remaining -= taken;
+            }
+        }
+        return reservations;
+    }
+
+    private InsufficientStockException insufficientStock(Long bookId, int quantity,
+                                                         int available) {
+        return new InsufficientStockException("Not enough stock for book with id " + bookId
+                + ", requested " + quantity + ", available " + available);
+    }
+
+    private StockContentionException stockContention(Long bookId) {
+        // the stock is there, but taking it here could lock rows out of order
+        return new StockContentionException("Stock of book with id " + bookId
+                + " is being taken by concurrent checkouts");
+    }
+
+    private Set<Long> loadCounters(List<Long> bookIds) {
+        List<Long> missing = bookIds.stream()
+                .filter(bookId -> !counters.isLoaded(bookId))
+                .toList();
+        if (missing.isEmpty()) {
+            return Set.of();
+        }
+        Map<Long, List<StockStripe>> stock = new HashMap<>();
+        missing.forEach(bookId -> stock.put(bookId, new ArrayList<>()));
+        namedParameterJdbcTemplate.query(SELECT_STOCK, Map.of("bookIds", missing), rs -> {
+            stock.get(rs.getLong("book_id")).add(STOCK_STRIPE_MAPPER.mapRow(rs, 0));
+        });
+        // books without stock rows are not loaded, so the next checkout sees their stock once set
+        Set<Long> untracked = new HashSet<>();
+        stock.forEach((bookId, stripes) -> {
+            if (stripes.isEmpty()) {
+                untracked.add(bookId);
+            } else {
+                counters.load(bookId, stripes);
+            }
+        });
+        return untracked;
+    }
+
+    private void invalidateAfterCompletion(List<Long> bookIds, boolean onRollbackOnly) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (!onRollbackOnly || status != STATUS_COMMITTED) {
+                    counters.invalidate(bookIds);
+                }
+            }
+        });
+    }
+
+    private int sum(List<StockStripe> stock, int fromStripe) {
+        return stock.stream()
+                .filter(stockStripe -> stockStripe.stripe() >= fromStripe)
+                .mapToInt(StockStripe::quantity)
+                .sum();
+    }
+}
@@ -0,0 +1,4 @@
+package bookstore.inventory;
+
+record Reservation(Long bookId, int stripe, int quantity) {
+}
@@ -0,0 +1,56 @@
+package bookstore.inventory;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+final class StockCounters {
+    static final int NO_STRIPE = -1;
+
+    private final Map<Long, AtomicIntegerArray> counters = new ConcurrentHashMap<>();
+    private final int stripes;
+
+    StockCounters(int stripes) {
+        this.stripes = stripes;
+    }
+
+    boolean isLoaded(Long bookId) {
+        return counters.containsKey(bookId);
+    }
+
+    void load(Long bookId, Collection<StockStripe> stock) {
+        AtomicIntegerArray counter = new AtomicIntegerArray(stripes);
+        for (StockStripe stripe : stock) {
+            if (stripe.stripe() < stripes) {
+                counter.set(stripe.stripe(), stripe.quantity());
+            }
+        }
+        counters.put(bookId, counter);
+    }
+
+    int pickStripe(Long bookId, int quantity) {
+        AtomicIntegerArray counter = counters.get(bookId);
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            int stripe = (start + i) % stripes;
+            // only a hint for picking a row, the conditional update decides
+            if (counter == null || counter.get(stripe) >= quantity) {
+                return stripe;
+            }
+        }
+        return NO_STRIPE;
+    }
+
+    void add(Long bookId, int stripe, int quantity) {
+        AtomicIntegerArray counter = counters.get(bookId);
+        if (counter != null && stripe < stripes) {
+            counter.addAndGet(stripe, quantity);
+        }
+    }
+
+    void invalidate(Collection<Long> bookIds) {
+        bookIds.forEach(counters::remove);
+    }
+}
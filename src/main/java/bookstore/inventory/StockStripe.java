@@ -0,0 +1,4 @@
+package bookstore.inventory;
+
+record StockStripe(int stripe, int quantity) {
+}
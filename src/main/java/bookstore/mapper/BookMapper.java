@@ -5,10 +5,13 @@ import bookstore.dto.book.BookDtoWithoutCategoryIds;
 import bookstore.dto.book.CreateBookRequestDto;
 import bookstore.model.Book;
 import bookstore.model.Category;
-import org.mapstruct.AfterMapping;
+import bookstore.repository.BookExportRow;
+import java.util.List;
+import java.util.Set;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.InjectionStrategy;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValueCheckStrategy;
 import org.mapstruct.NullValuePropertyMappingStrategy;
@@ -18,8 +21,12 @@ import org.mapstruct.NullValuePropertyMappingStrategy;
         nullValueCheckStrategy = NullValueCheckStrategy.ALWAYS,
         implementationPackage = "<PACKAGE_NAME>.impl")
 public interface BookMapper {
+    @Mapping(target = "categoryIds", source = "categories")
     BookDto toDto(Book book);
 
+    @Mapping(target = "version", ignore = true)
+    BookDto toDto(BookExportRow row, List<Long> categoryIds);
+
     Book toBook(CreateBookRequestDto requestDto);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
@@ -27,10 +34,9 @@ public interface BookMapper {
 
     BookDtoWithoutCategoryIds toDtoWithoutCategories(Book book);
 
-    @AfterMapping
-    default void setCategoryIds(@MappingTarget BookDto bookDto, Book book) {
-        bookDto.setCategoryIds(book.getCategories().stream()
+    default List<Long> toCategoryIds(Set<Category> categories) {
+        return categories.stream()
                 .map(Category::getId)
-                .toList());
+                .toList();
     }
 }
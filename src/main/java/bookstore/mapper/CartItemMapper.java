@@ -16,5 +16,6 @@ public interface CartItemMapper {
     @Mapping(source = "book.title", target = "bookTitle")
     CartItemDto toDto(CartItem cartItem);
 
+    @Mapping(target = "version", ignore = true)
     CartItem toCartItem(CartItemDto cartItemDto);
 }
@@ -0,0 +1,79 @@
+package bookstore.mapper;
+
+import bookstore.exception.InvalidCursorException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CursorMapper {
+    private static final String ID_PROPERTY = "id";
+    private static final TypeReference<Map<String, String>> KEYS_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final ConversionService conversionService = DefaultConversionService
+            .getSharedInstance();
+
+    public String toCursor(KeysetScrollPosition position) {
+        Map<String, String> keys = new LinkedHashMap<>();
+        position.getKeys().forEach((key, value) -> keys.put(key, String.valueOf(value)));
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(objectMapper.writeValueAsBytes(keys));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can`t encode cursor " + keys, e);
+        }
+    }
+
+    public KeysetScrollPosition toPosition(String cursor, Sort sort,
+                                           Class<?> entityType, Set<String> sortableProperties) {
+        for (Sort.Order order : sort) {
+            if (!sortableProperties.contains(order.getProperty())) {
+                throw new InvalidCursorException("Can`t scroll by property "
+                        + order.getProperty() + ", allowed: " + sortableProperties);
+            }
+        }
+        if (cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, String> keys = decode(cursor);
+        Map<String, Object> typedKeys = new LinkedHashMap<>();
+        for (Map.Entry<String, String> key : keys.entrySet()) {
+            if (!sortableProperties.contains(key.getKey())) {
+                throw new InvalidCursorException("Cursor contains unknown key " + key.getKey());
+            }
+            Class<?> type = BeanUtils.getPropertyDescriptor(entityType, key.getKey())
+                    .getPropertyType();
+            typedKeys.put(key.getKey(), conversionService.convert(key.getValue(), type));
+        }
+        boolean matchesSort = typedKeys.containsKey(ID_PROPERTY) && sort.stream()
+                .allMatch(order -> typedKeys.containsKey(order.getProperty()));
+        if (!matchesSort) {
+            throw new InvalidCursorException("Cursor doesn`t match sort " + sort);
+        }
+        return ScrollPosition.forward(typedKeys);
+    }
+
+    private Map<String, String> decode(String cursor) {
+        try {
+            return objectMapper.readValue(Base64.getUrlDecoder().decode(cursor), KEYS_TYPE);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidCursorException("Invalid cursor " + cursor, e);
+        }
+    }
+}
@@ -15,6 +15,7 @@ import org.mapstruct.NullValueCheckStrategy;
 public interface OrderItemMapper {
     OrderItem toOrderItem(OrderItemDto orderItemDto);
 
+    @Mapping(target = "id", ignore = true)
     @Mapping(source = "book.price", target = "price")
     OrderItem toOrderItem(CartItem cartItem);
 
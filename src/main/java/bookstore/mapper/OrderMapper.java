@@ -1,7 +1,11 @@
 package bookstore.mapper;
 
 import bookstore.dto.order.OrderDto;
+import bookstore.dto.order.OrderSummaryDto;
+import bookstore.dto.orderitem.OrderItemDto;
 import bookstore.model.Order;
+import bookstore.repository.OrderExportRow;
+import java.util.Set;
 import org.mapstruct.InjectionStrategy;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -17,4 +21,13 @@ public interface OrderMapper {
 
     @Mapping(source = "user.id", target = "userId")
     OrderDto toDto(Order order);
+
+    @Mapping(source = "row.id", target = "id")
+    OrderDto toDto(OrderExportRow row, Set<OrderItemDto> orderItems);
+
+    @Mapping(source = "user.id", target = "userId")
+    OrderSummaryDto toSummaryDto(Order order);
+
+    @Mapping(source = "itemId", target = "id")
+    OrderItemDto toOrderItemDto(OrderExportRow row);
 }
@@ -0,0 +1,92 @@
+package bookstore.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import net.ttddyy.observation.tracing.QueryContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+@Component
+public class JdbcRequestMetricsFilter extends OncePerRequestFilter
+        implements ObservationHandler<QueryContext> {
+    private static final String UNKNOWN_URI = "UNKNOWN";
+    private static final String START_KEY = JdbcRequestMetricsFilter.class.getName() + ".start";
+
+    private final ThreadLocal<RequestQueries> currentRequest = new ThreadLocal<>();
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestQueries queries = new RequestQueries();
+        currentRequest.set(queries);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            currentRequest.remove();
+            record(request, queries);
+        }
+    }
+
+    @Override
+    public void onStart(QueryContext context) {
+        if (currentRequest.get() != null) {
+            context.put(START_KEY, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void onStop(QueryContext context) {
+        RequestQueries queries = currentRequest.get();
+        Long start = context.get(START_KEY);
+        if (queries != null && start != null) {
+            queries.count++;
+            queries.nanos += System.nanoTime() - start;
+        }
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof QueryContext;
+    }
+
+    private void record(HttpServletRequest request, RequestQueries queries) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? UNKNOWN_URI : pattern.toString();
+        DistributionSummary.builder("http.server.requests.jdbc.queries")
+                .description("JDBC queries executed per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(queries.count);
+        Timer.builder("http.server.requests.jdbc.time")
+                .description("Time spent in JDBC queries per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofNanos(queries.nanos));
+    }
+
+    private static class RequestQueries {
+        private int count;
+        private long nanos;
+    }
+}
@@ -12,6 +12,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -44,21 +45,52 @@ public class Order {
     @Column(nullable = false)
     private BigDecimal total;
 
+    @Column(nullable = false)
+    private int itemCount;
+
+    @Column(nullable = false)
+    private int totalQuantity;
+
     @Column(nullable = false)
     private LocalDateTime orderDate;
 
     @Column(nullable = false)
     private String shippingAddress;
 
+    private LocalDateTime deliveredAt;
+
+    private LocalDateTime completedAt;
+
+    private LocalDateTime cancelledAt;
+
     @OneToMany(mappedBy = "order", orphanRemoval = true, cascade = CascadeType.ALL)
+    @OrderBy("id")
     private Set<OrderItem> orderItems = new HashSet<>();
 
     @Column(nullable = false)
     private boolean isDeleted = false;
 
+    public void addOrderItem(OrderItem orderItem) {
+        orderItem.setOrder(this);
+        orderItems.add(orderItem);
+        itemCount++;
+        totalQuantity += orderItem.getQuantity();
+        total = total.add(orderItem.getPrice()
+                .multiply(BigDecimal.valueOf(orderItem.getQuantity())));
+    }
+
     public enum Status {
         PENDING,
         DELIVERED,
-        COMPLETED
+        COMPLETED,
+        CANCELLED;
+
+        public boolean canTransitionTo(Status status) {
+            return switch (this) {
+                case PENDING -> status == DELIVERED || status == CANCELLED;
+                case DELIVERED -> status == COMPLETED;
+                case COMPLETED, CANCELLED -> false;
+            };
+        }
     }
 }
@@ -0,0 +1,104 @@
+package bookstore.order;
+
+import bookstore.config.CacheConfig;
+import bookstore.dto.order.CreateOrderRequestDto;
+import bookstore.dto.order.OrderDto;
+import bookstore.exception.CheckoutInProgressException;
+import bookstore.exception.IdempotencyKeyReusedException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+@Component
+public class IdempotentCheckouts {
+    private final Cache cache;
+    // attempts in flight are never evicted, or a retry could start a second checkout
+    private final ConcurrentMap<Key, Checkout> inFlight = new ConcurrentHashMap<>();
+    private final Duration inFlightWait;
+
+    public IdempotentCheckouts(CacheManager cacheManager,
+                               @Value("${cache.checkouts.in-flight-wait}") Duration inFlightWait) {
+        this.cache = cacheManager.getCache(CacheConfig.CHECKOUTS_CACHE);
+        this.inFlightWait = inFlightWait;
+    }
+
+    public OrderDto createOrder(Long userId, String idempotencyKey,
+                                CreateOrderRequestDto requestDto, Supplier<OrderDto> checkout) {
+        Key key = new Key(userId, idempotencyKey);
+        while (true) {
+            Cache.ValueWrapper completed = cache.get(key);
+            if (completed != null) {
+                return checkRequest((Checkout) completed.get(), idempotencyKey, requestDto)
+                        .order().join();
+            }
+            Checkout attempt = new Checkout(requestDto, new CompletableFuture<>());
+            Checkout running = inFlight.putIfAbsent(key, attempt);
+            if (running == null) {
+                return run(key, attempt, checkout);
+            }
+            // a retry waits for the attempt in flight; a failed attempt is not kept
+            OrderDto order = await(checkRequest(running, idempotencyKey, requestDto),
+                    idempotencyKey);
+            if (order != null) {
+                return order;
+            }
+        }
+    }
+
+    private OrderDto run(Key key, Checkout attempt, Supplier<OrderDto> checkout) {
+        try {
+            // the previous attempt may have completed since the cache was checked
+            Cache.ValueWrapper completed = cache.get(key);
+            OrderDto createdOrder = completed == null ? checkout.get()
+                    : checkRequest((Checkout) completed.get(), key.idempotencyKey(),
+                            attempt.requestDto()).order().join();
+            attempt.order().complete(createdOrder);
+            cache.put(key, attempt);
+            return createdOrder;
+        } catch (Throwable e) {
+            // errors too, or retries of this key would wait on a future that never completes
+            attempt.order().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, attempt);
+        }
+    }
+
+    private OrderDto await(Checkout running, String idempotencyKey) {
+        try {
+            return running.order().get(inFlightWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            // the client retries later instead of holding a request thread for the whole checkout
+        }
+        throw new CheckoutInProgressException("Checkout with idempotency key "
+                + idempotencyKey + " is still in progress, please retry");
+    }
+
+    private Checkout checkRequest(Checkout stored, String idempotencyKey,
+                                  CreateOrderRequestDto requestDto) {
+        if (!stored.requestDto().equals(requestDto)) {
+            throw new IdempotencyKeyReusedException("Idempotency key " + idempotencyKey
+                    + " was already used for a different order");
+        }
+        return stored;
+    }
+
+    private record Key(Long userId, String idempotencyKey) {
+    }
+
+    private record Checkout(CreateOrderRequestDto requestDto, CompletableFuture<OrderDto> order) {
+    }
+}
@@ -0,0 +1,121 @@
+package bookstore.order;
+
+import bookstore.dto.order.OrderStatusUpdateResultDto;
+import bookstore.dto.order.OrderStatusUpdateResultDto.Outcome;
+import bookstore.inventory.Inventory;
+import bookstore.model.Order;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+public class OrderStatusTransitions {
+    private static final String LOCK_ORDERS = "SELECT id, status FROM orders "
+            + "WHERE id IN (:orderIds) AND is_deleted = false ORDER BY id FOR UPDATE";
+    private static final Map<Order.Status, String> CHANGED_AT_COLUMNS = Map.of(
+            Order.Status.DELIVERED, "delivered_at",
+            Order.Status.COMPLETED, "completed_at",
+            Order.Status.CANCELLED, "cancelled_at");
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate batchTransaction;
+    private final Inventory inventory;
+    private final int batchSize;
+
+    public OrderStatusTransitions(NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  Inventory inventory,
+                                  @Value("${orders.status-update.batch-size}") int batchSize) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.inventory = inventory;
+        this.batchSize = batchSize;
+    }
+
+    public List<OrderStatusUpdateResultDto> apply(List<Long> orderIds, Order.Status status) {
+        if (!CHANGED_AT_COLUMNS.containsKey(status)) {
+            return orderIds.stream()
+                    .map(orderId -> new OrderStatusUpdateResultDto(orderId, null,
+                            Outcome.INVALID_TRANSITION))
+                    .toList();
+        }
+        List<Long> distinctIds = orderIds.stream().distinct().toList();
+        List<OrderStatusUpdateResultDto> results = new ArrayList<>(distinctIds.size());
+        // every batch commits on its own, so a large run holds its row locks only briefly
+        for (int from = 0; from < distinctIds.size(); from += batchSize) {
+            List<Long> batch = distinctIds.subList(from,
+                    Math.min(from + batchSize, distinctIds.size()));
+            results.addAll(applyInOwnTransaction(batch, status));
+        }
+        return results;
+    }
+
+    // a single order joins the caller's transaction, so its failure propagates to the caller
+    public OrderStatusUpdateResultDto apply(Long orderId, Order.Status status) {
+        if (!CHANGED_AT_COLUMNS.containsKey(status)) {
+            return new OrderStatusUpdateResultDto(orderId, null, Outcome.INVALID_TRANSITION);
+        }
+        return batchTransaction.execute(transaction -> applyBatch(List.of(orderId), status))
+                .get(0);
+    }
+
+    private List<OrderStatusUpdateResultDto> applyInOwnTransaction(List<Long> orderIds,
+                                                                   Order.Status status) {
+        try {
+            return batchTransaction.execute(transaction -> applyBatch(orderIds, status));
+        } catch (RuntimeException e) {
+            // earlier batches stay committed, so report this one instead of failing the run
+            return orderIds.stream()
+                    .map(orderId -> new OrderStatusUpdateResultDto(orderId, null,
+                            Outcome.FAILED))
+                    .toList();
+        }
+    }
+
+    private List<OrderStatusUpdateResultDto> applyBatch(List<Long> orderIds,
+                                                        Order.Status status) {
+        Map<Long, Order.Status> statuses = new HashMap<>();
+        namedParameterJdbcTemplate.query(LOCK_ORDERS, Map.of("orderIds", orderIds), rs -> {
+            statuses.put(rs.getLong("id"), Order.Status.valueOf(rs.getString("status")));
+        });
+        List<Long> changed = new ArrayList<>();
+        List<OrderStatusUpdateResultDto> results = new ArrayList<>(orderIds.size());
+        for (Long orderId : orderIds) {
+            Order.Status current = statuses.get(orderId);
+            if (current == null) {
+                results.add(new OrderStatusUpdateResultDto(orderId, null, Outcome.NOT_FOUND));
+            } else if (current == status) {
+                results.add(new OrderStatusUpdateResultDto(orderId, current.name(),
+                        Outcome.UNCHANGED));
+            } else if (current.canTransitionTo(status)) {
+                changed.add(orderId);
+                results.add(new OrderStatusUpdateResultDto(orderId, status.name(),
+                        Outcome.UPDATED));
+            } else {
+                results.add(new OrderStatusUpdateResultDto(orderId, current.name(),
+                        Outcome.INVALID_TRANSITION));
+            }
+        }
+        if (changed.isEmpty()) {
+            return results;
+        }
+        namedParameterJdbcTemplate.update("UPDATE orders SET status = :status, "
+                + CHANGED_AT_COLUMNS.get(status) + " = :changedAt WHERE id IN (:orderIds)",
+                Map.of("status", status.name(),
+                        "changedAt", LocalDateTime.now(),
+                        "orderIds", changed));
+        if (status == Order.Status.CANCELLED) {
+            inventory.release(changed);
+        } else {
+            inventory.confirm(changed);
+        }
+        return results;
+    }
+}
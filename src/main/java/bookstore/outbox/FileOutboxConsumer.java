@@ -0,0 +1,59 @@
+package bookstore.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "outbox.file-sink.path")
+public class FileOutboxConsumer implements OutboxConsumer {
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileOutboxConsumer(ObjectMapper objectMapper,
+                              @Value("${outbox.file-sink.path}") Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    @Override
+    public String name() {
+        return "file-sink";
+    }
+
+    @Override
+    public boolean supports(OutboxEventType type) {
+        return true;
+    }
+
+    @Override
+    public synchronized void accept(OutboxEvent event) {
+        try {
+            ObjectNode line = objectMapper.createObjectNode()
+                    .put("id", event.id())
+                    .put("type", event.type().name())
+                    .put("aggregateId", event.aggregateId());
+            line.set("payload", objectMapper.readTree(event.payload()));
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.writeString(path, objectMapper.writeValueAsString(line) + System.lineSeparator(),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed payload of outbox event "
+                    + event.id(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can`t append outbox event " + event.id()
+                    + " to " + path, e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package bookstore.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+public class Outbox {
+    static final String PENDING = "PENDING";
+    private static final String INSERT_EVENT = "INSERT INTO outbox_events (consumer, event_type, "
+            + "aggregate_id, payload, status, attempts, next_attempt_at, created_at) "
+            + "VALUES (?, ?, ?, ?, '" + PENDING + "', 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final List<OutboxConsumer> consumers;
+
+    public Outbox(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                  List<OutboxConsumer> consumers) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.consumers = consumers;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(OutboxEventType type, Long aggregateId, Object payload) {
+        List<String> subscribers = consumers.stream()
+                .filter(consumer -> consumer.supports(type))
+                .map(OutboxConsumer::name)
+                .toList();
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String json = toJson(payload);
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_EVENT, subscribers, subscribers.size(), (ps, consumer) -> {
+            ps.setString(1, consumer);
+            ps.setString(2, type.name());
+            ps.setLong(3, aggregateId);
+            ps.setString(4, json);
+            ps.setObject(5, now);
+            ps.setObject(6, now);
+        });
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Can`t serialize outbox payload " + payload, e);
+        }
+    }
+}
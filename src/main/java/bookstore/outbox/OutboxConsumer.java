@@ -0,0 +1,9 @@
+package bookstore.outbox;
+
+public interface OutboxConsumer {
+    String name();
+
+    boolean supports(OutboxEventType type);
+
+    void accept(OutboxEvent event);
+}
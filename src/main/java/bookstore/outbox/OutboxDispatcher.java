@@ -0,0 +1,155 @@
+package bookstore.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OutboxDispatcher implements DisposableBean {
+    private static final String METRIC_NAME = "outbox.dispatcher";
+    private static final int MAX_ERROR_LENGTH = 255;
+    private static final String SELECT_DUE = "SELECT id, consumer, event_type, aggregate_id, "
+            + "payload, attempts FROM outbox_events WHERE status = '" + Outbox.PENDING + "' "
+            + "AND consumer IN (:consumers) AND next_attempt_at <= :now "
+            + "ORDER BY next_attempt_at, id LIMIT :limit";
+    private static final String CLAIM = "UPDATE outbox_events SET next_attempt_at = ? "
+            + "WHERE id = ? AND status = '" + Outbox.PENDING + "' AND next_attempt_at <= ?";
+    private static final String DELETE_EVENT = "DELETE FROM outbox_events WHERE id = ?";
+    private static final String SCHEDULE_RETRY = "UPDATE outbox_events SET attempts = ?, "
+            + "next_attempt_at = ?, last_error = ? WHERE id = ?";
+    private static final String MARK_FAILED = "UPDATE outbox_events SET status = 'FAILED', "
+            + "attempts = ?, last_error = ? WHERE id = ?";
+    private static final RowMapper<OutboxEvent> EVENT_MAPPER = (rs, rowNum) -> new OutboxEvent(
+            rs.getLong("id"),
+            rs.getString("consumer"),
+            OutboxEventType.valueOf(rs.getString("event_type")),
+            rs.getLong("aggregate_id"),
+            rs.getString("payload"),
+            rs.getInt("attempts"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final Map<String, OutboxConsumer> consumers;
+    private final ThreadPoolExecutor threadPool;
+    private final ExecutorService executor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxAttempts;
+
+    public OutboxDispatcher(JdbcTemplate jdbcTemplate,
+                            NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                            List<OutboxConsumer> consumers,
+                            MeterRegistry meterRegistry,
+                            @Value("${outbox.threads}") int threads,
+                            @Value("${outbox.batch-size}") int batchSize,
+                            @Value("${outbox.lease}") Duration lease,
+                            @Value("${outbox.retry.initial-backoff}") Duration initialBackoff,
+                            @Value("${outbox.retry.max-backoff}") Duration maxBackoff,
+                            @Value("${outbox.retry.max-attempts}") int maxAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.consumers = consumers.stream()
+                .collect(Collectors.toMap(OutboxConsumer::name, Function.identity()));
+        // at most batchSize events are claimed at a time, so the queue needs no bound of its own
+        this.threadPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("outbox-"));
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPool, METRIC_NAME);
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval}")
+    public void dispatch() {
+        int capacity = batchSize - inFlight.get();
+        if (capacity <= 0 || consumers.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // events of consumers that only run on other instances are left to those instances
+        List<OutboxEvent> due = namedParameterJdbcTemplate.query(SELECT_DUE, Map.of(
+                "consumers", consumers.keySet(),
+                "now", now,
+                "limit", capacity), EVENT_MAPPER);
+        if (due.isEmpty()) {
+            return;
+        }
+        // the lease keeps other instances away until this one has handled the event
+        LocalDateTime leasedUntil = now.plus(lease);
+        int[][] claimed = jdbcTemplate.batchUpdate(CLAIM, due, due.size(), (ps, event) -> {
+            ps.setObject(1, leasedUntil);
+            ps.setLong(2, event.id());
+            ps.setObject(3, now);
+        });
+        for (int i = 0; i < due.size(); i++) {
+            if (claimed[0][i] == 1) {
+                OutboxEvent event = due.get(i);
+                inFlight.incrementAndGet();
+                executor.execute(() -> handle(event));
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        threadPool.shutdown();
+        threadPool.awaitTermination(lease.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void handle(OutboxEvent event) {
+        try {
+            OutboxConsumer consumer = consumers.get(event.consumer());
+            if (consumer == null) {
+                throw new IllegalStateException("No outbox consumer named " + event.consumer());
+            }
+            consumer.accept(event);
+            jdbcTemplate.update(DELETE_EVENT, event.id());
+        } catch (RuntimeException e) {
+            reschedule(event, e);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void reschedule(OutboxEvent event, RuntimeException e) {
+        int attempts = event.attempts() + 1;
+        String error = String.valueOf(e);
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        if (attempts >= maxAttempts) {
+            jdbcTemplate.update(MARK_FAILED, attempts, error, event.id());
+            return;
+        }
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(backoff(attempts));
+        jdbcTemplate.update(SCHEDULE_RETRY, attempts, nextAttemptAt, error, event.id());
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
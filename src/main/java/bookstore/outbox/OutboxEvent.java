@@ -0,0 +1,5 @@
+package bookstore.outbox;
+
+public record OutboxEvent(Long id, String consumer, OutboxEventType type, Long aggregateId,
+                          String payload, int attempts) {
+}
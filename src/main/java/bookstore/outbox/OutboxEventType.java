@@ -0,0 +1,5 @@
+package bookstore.outbox;
+
+public enum OutboxEventType {
+    ORDER_CREATED
+}
@@ -0,0 +1,21 @@
+package bookstore.repository;
+
+import java.math.BigDecimal;
+
+public interface BookExportRow {
+    Long getId();
+
+    String getTitle();
+
+    String getAuthor();
+
+    String getIsbn();
+
+    BigDecimal getPrice();
+
+    String getDescription();
+
+    String getCoverImage();
+
+    Long getCategoryId();
+}
@@ -1,13 +1,50 @@
 package bookstore.repository;
 
 import bookstore.model.Book;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>,
+        JpaSpecificationExecutor<Book> {
     @Query("SELECT b FROM Book b JOIN FETCH b.categories c WHERE c.id = :id")
     List<Book> findAllByCategoryId(Long id);
+
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.categories WHERE b.id IN :ids")
+    List<Book> findAllWithCategoriesByIdIn(Collection<Long> ids);
+
+    List<Book> findFirst1000ByIdGreaterThanOrderById(Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.id AS id, b.title AS title, b.author AS author, b.isbn AS isbn, "
+            + "b.price AS price, b.description AS description, b.coverImage AS coverImage, "
+            + "c.id AS categoryId FROM Book b LEFT JOIN b.categories c ORDER BY b.id")
+    Stream<BookExportRow> streamAllForExport();
+
+    Slice<EntityVersion> findAllVersionsBy(Pageable pageable);
+
+    @Query("SELECT b.id AS id, b.version AS version FROM Book b JOIN b.categories c "
+            + "WHERE c.id = :id")
+    List<EntityVersion> findVersionsByCategoryId(Long id);
+
+    @Modifying
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "books"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "books_categories")
+    })
+    @Query(value = "UPDATE books SET version = version + 1 WHERE id IN "
+            + "(SELECT book_id FROM books_categories WHERE category_id = :categoryId)",
+            nativeQuery = true)
+    void incrementVersionsByCategoryId(Long categoryId);
 }
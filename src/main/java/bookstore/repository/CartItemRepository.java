@@ -1,10 +1,25 @@
 package bookstore.repository;
 
 import bookstore.model.CartItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.shoppingCart.id = :cartId")
     void deleteAllByShoppingCartId(Long cartId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cart_items"))
+    @Query(value = "INSERT INTO cart_items (id, shopping_cart_id, book_id, quantity, version) "
+            + "VALUES (:id, :cartId, :bookId, :quantity, 0) "
+            + "ON DUPLICATE KEY UPDATE quantity = quantity + :quantity, version = version + 1",
+            nativeQuery = true)
+    void upsertQuantity(Long id, Long cartId, Long bookId, int quantity);
 }
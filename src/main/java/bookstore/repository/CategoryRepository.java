@@ -1,9 +1,21 @@
 package bookstore.repository;
 
 import bookstore.model.Category;
+import jakarta.persistence.QueryHint;
+import java.util.Set;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+    Slice<EntityVersion> findAllVersionsBy(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT c.id FROM Category c")
+    Set<Long> findAllIds();
 }
@@ -0,0 +1,7 @@
+package bookstore.repository;
+
+public interface EntityVersion {
+    Long getId();
+
+    Long getVersion();
+}
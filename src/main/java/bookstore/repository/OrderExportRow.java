@@ -0,0 +1,29 @@
+package bookstore.repository;
+
+import bookstore.model.Order;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface OrderExportRow {
+    Long getId();
+
+    Long getUserId();
+
+    LocalDateTime getOrderDate();
+
+    BigDecimal getTotal();
+
+    Order.Status getStatus();
+
+    LocalDateTime getDeliveredAt();
+
+    LocalDateTime getCompletedAt();
+
+    LocalDateTime getCancelledAt();
+
+    Long getItemId();
+
+    Long getBookId();
+
+    Integer getQuantity();
+}
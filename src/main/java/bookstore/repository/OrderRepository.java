@@ -1,17 +1,40 @@
 package bookstore.repository;
 
 import bookstore.model.Order;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>,
+        JpaSpecificationExecutor<Order> {
     @EntityGraph(attributePaths = "orderItems")
     Set<Order> findByUserId(Long id);
 
+    @EntityGraph(attributePaths = "orderItems")
+    List<Order> findAllWithOrderItemsByIdIn(Collection<Long> ids);
+
     @EntityGraph(attributePaths = "orderItems")
     Optional<Order> findByIdAndId(Long userId, Long id);
+
+    @EntityGraph(attributePaths = "orderItems")
+    Optional<Order> findWithOrderItemsById(Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT o.id AS id, o.user.id AS userId, o.orderDate AS orderDate, o.total AS total, "
+            + "o.status AS status, o.deliveredAt AS deliveredAt, o.completedAt AS completedAt, "
+            + "o.cancelledAt AS cancelledAt, "
+            + "i.id AS itemId, i.book.id AS bookId, i.quantity AS quantity "
+            + "FROM Order o LEFT JOIN o.orderItems i WHERE o.user.id = :userId ORDER BY o.id")
+    Stream<OrderExportRow> streamAllForExportByUserId(Long userId);
 }
@@ -0,0 +1,314 @@
+package bookstore.search;
+
+import bookstore.model.Book;
+import bookstore.repository.BookRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class BookSearchIndex {
+    private static final int BATCH_SIZE = 1000;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_DELETED_TO_COMPACT = 1024;
+    private static final float PREFIX_MATCH_FACTOR = 0.5f;
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float AUTHOR_WEIGHT = 2f;
+    private static final float ISBN_WEIGHT = 4f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private final BookRepository bookRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private long[] bookIds = new long[BATCH_SIZE];
+    private int size;
+    private int deletedInPostings;
+    private Set<Long> changedDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            ordinals.clear();
+            deleted.clear();
+            size = 0;
+            deletedInPostings = 0;
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            List<Book> batch;
+            long lastId = 0;
+            do {
+                batch = bookRepository.findFirst1000ByIdGreaterThanOrderById(lastId);
+                indexBatch(batch);
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == BATCH_SIZE);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public void index(Book book) {
+        Map<String, Float> weights = weigh(book);
+        lock.writeLock().lock();
+        try {
+            markChanged(book.getId());
+            indexLocked(book.getId(), weights);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            markChanged(bookId);
+            removeLocked(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = new ArrayList<>(tokenize(query));
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return searchLocked(tokens, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> searchLocked(List<String> tokens, int limit) {
+        Map<Integer, Match> matches = new HashMap<>();
+        int liveDocuments = ordinals.size();
+        for (int token = 0; token < tokens.size(); token++) {
+            String term = tokens.get(token);
+            boolean matched = false;
+            Postings exact = terms.get(term);
+            if (exact != null) {
+                exact.score(token, 1f, liveDocuments, matches);
+                matched = true;
+            }
+            if (term.length() >= MIN_PREFIX_LENGTH) {
+                Iterator<Postings> prefixed = terms
+                        .subMap(term, false, term + Character.MAX_VALUE, false)
+                        .values().iterator();
+                for (int i = 0; i < MAX_PREFIX_EXPANSIONS && prefixed.hasNext(); i++) {
+                    prefixed.next().score(token, PREFIX_MATCH_FACTOR, liveDocuments, matches);
+                    matched = true;
+                }
+            }
+            if (!matched) {
+                return List.of();
+            }
+        }
+        Comparator<Map.Entry<Integer, Match>> byScore = Comparator
+                .<Map.Entry<Integer, Match>>comparingDouble(match -> match.getValue().score)
+                .thenComparing(match -> -bookIds[match.getKey()]);
+        PriorityQueue<Map.Entry<Integer, Match>> top = new PriorityQueue<>(limit + 1, byScore);
+        for (Map.Entry<Integer, Match> match : matches.entrySet()) {
+            if (match.getValue().matchedTokens == tokens.size()
+                    && !deleted.get(match.getKey())) {
+                top.add(match);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        List<Long> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            result.add(bookIds[top.poll().getKey()]);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private void indexBatch(List<Book> batch) {
+        List<Map<String, Float>> weights = batch.stream().map(this::weigh).toList();
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                // a book changed since the rebuild started is newer than this batch
+                if (!changedDuringRebuild.contains(batch.get(i).getId())) {
+                    indexLocked(batch.get(i).getId(), weights.get(i));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void indexLocked(Long bookId, Map<String, Float> weights) {
+        removeLocked(bookId);
+        int ordinal = size++;
+        if (ordinal == bookIds.length) {
+            bookIds = Arrays.copyOf(bookIds, bookIds.length * 2);
+        }
+        bookIds[ordinal] = bookId;
+        ordinals.put(bookId, ordinal);
+        weights.forEach((term, weight) -> terms
+                .computeIfAbsent(term, t -> new Postings())
+                .add(ordinal, weight));
+    }
+
+    private void markChanged(Long bookId) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(bookId);
+        }
+    }
+
+    private void removeLocked(Long bookId) {
+        Integer ordinal = ordinals.remove(bookId);
+        if (ordinal == null) {
+            return;
+        }
+        deleted.set(ordinal);
+        deletedInPostings++;
+        if (deletedInPostings >= MIN_DELETED_TO_COMPACT && deletedInPostings * 4 > size) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        // live books are renumbered from zero, so ordinals of removed and updated books are reused
+        int[] renumbered = new int[size];
+        int live = 0;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (deleted.get(ordinal)) {
+                renumbered[ordinal] = -1;
+            } else {
+                renumbered[ordinal] = live;
+                bookIds[live++] = bookIds[ordinal];
+            }
+        }
+        terms.values().forEach(postings -> postings.renumber(renumbered));
+        terms.values().removeIf(postings -> postings.size == 0);
+        ordinals.replaceAll((bookId, ordinal) -> renumbered[ordinal]);
+        deleted.clear();
+        size = live;
+        deletedInPostings = 0;
+    }
+
+    private Map<String, Float> weigh(Book book) {
+        Map<String, Float> weights = new HashMap<>();
+        addTokens(weights, book.getTitle(), TITLE_WEIGHT);
+        addTokens(weights, book.getAuthor(), AUTHOR_WEIGHT);
+        addTokens(weights, book.getIsbn(), ISBN_WEIGHT);
+        addTokens(weights, book.getDescription(), DESCRIPTION_WEIGHT);
+        if (book.getIsbn() != null) {
+            weights.merge(TOKEN_SEPARATOR.matcher(book.getIsbn().toLowerCase(Locale.ROOT))
+                    .replaceAll(""), ISBN_WEIGHT, Float::sum);
+        }
+        return weights;
+    }
+
+    private static void addTokens(Map<String, Float> weights, String text, float weight) {
+        for (String token : tokenize(text)) {
+            weights.merge(token, weight, Float::sum);
+        }
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        private void add(int ordinal, float weight) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ordinals[size] = ordinal;
+            weights[size] = weight;
+            size++;
+        }
+
+        private void renumber(int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (renumbered[ordinals[i]] >= 0) {
+                    ordinals[kept] = renumbered[ordinals[i]];
+                    weights[kept] = weights[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+
+        private void score(int token, float factor, int liveDocuments,
+                           Map<Integer, Match> matches) {
+            float idf = (float) Math.log(1 + (double) liveDocuments / size);
+            for (int i = 0; i < size; i++) {
+                Match match = token == 0
+                        ? matches.computeIfAbsent(ordinals[i], ordinal -> new Match())
+                        : matches.get(ordinals[i]);
+                if (match == null) {
+                    continue;
+                }
+                if (match.matchedTokens == token) {
+                    match.matchedTokens = token + 1;
+                } else if (match.matchedTokens != token + 1) {
+                    continue;
+                }
+                match.score += weights[i] * idf * factor;
+            }
+        }
+    }
+
+    private static final class Match {
+        private float score;
+        private int matchedTokens;
+    }
+}
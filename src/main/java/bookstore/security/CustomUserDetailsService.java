@@ -1,20 +1,39 @@
 package bookstore.security;
 
 import bookstore.exception.EntityNotFoundException;
+import bookstore.model.User;
 import bookstore.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @RequiredArgsConstructor
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
 
+    // not read-only, so that credentials always come from the primary and not from a replica
+    @Transactional
     @Override
     public UserDetails loadUserByUsername(String username) {
-        return userRepository.findByEmail(username).orElseThrow(()
+        User user = userRepository.findByEmail(username).orElseThrow(()
                 -> new EntityNotFoundException("Can`t find user by email"));
+        // roles come from the second-level cache instead of a join on every lookup
+        Hibernate.initialize(user.getRoles());
+        return user;
+    }
+
+    @Transactional
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User existingUser = userRepository.findByEmail(user.getUsername()).orElseThrow(()
+                -> new EntityNotFoundException("Can`t find user by email"));
+        existingUser.setPassword(newPassword);
+        Hibernate.initialize(existingUser.getRoles());
+        return existingUser;
     }
 }
@@ -1,38 +1,44 @@
 package bookstore.security;
 
+import bookstore.config.CacheConfig;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.HexFormat;
 import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JwtUtil {
-    private SecretKey secret;
+    private final SecretKey secret;
+    private final JwtParser parser;
+    private final Cache verifiedTokens;
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    public JwtUtil(@Value("${jwt.secret}") String secret) {
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${cache.tokens.enabled}") boolean tokenCacheEnabled,
+                   CacheManager cacheManager) {
         this.secret = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(this.secret)
+                .build();
+        this.verifiedTokens = tokenCacheEnabled
+                ? cacheManager.getCache(CacheConfig.TOKENS_CACHE)
+                : null;
     }
 
     public String getUsername(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
-    }
-
-    private <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = Jwts.parser()
-                .verifyWith(secret)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claimsResolver.apply(claims);
+        return parseToken(token).getSubject();
     }
 
     public String generateToken(String userName) {
@@ -45,14 +51,41 @@ public class JwtUtil {
     }
 
     public boolean isValidToken(String token) {
+        return parseToken(token) != null;
+    }
+
+    public Claims parseToken(String token) {
+        if (verifiedTokens == null) {
+            return verify(token);
+        }
+        String digest = digest(token);
+        Claims claims = verifiedTokens.get(digest, Claims.class);
+        if (claims != null && claims.getExpiration().after(new Date())) {
+            return claims;
+        }
+        claims = verify(token);
+        verifiedTokens.put(digest, claims);
+        return claims;
+    }
+
+    private Claims verify(String token) {
         try {
-            Jws<Claims> claimsJws = Jwts.parser()
-                    .verifyWith(secret)
-                    .build()
-                    .parseSignedClaims(token);
-            return !claimsJws.getPayload().getExpiration().before(new Date());
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            if (claims.getExpiration().before(new Date())) {
+                throw new JwtException("Token is expired");
+            }
+            return claims;
         } catch (JwtException | IllegalArgumentException ex) {
             throw new JwtException("Token is expired or invalid", ex);
         }
     }
+
+    private String digest(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
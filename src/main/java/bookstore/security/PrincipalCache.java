@@ -0,0 +1,49 @@
+package bookstore.security;
+
+import bookstore.config.CacheConfig;
+import java.util.Date;
+import java.util.function.Function;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class PrincipalCache {
+    private final Cache cache;
+
+    public PrincipalCache(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CacheConfig.PRINCIPALS_CACHE);
+    }
+
+    public UserDetails get(String email, Date issuedAt, Function<String, UserDetails> loader) {
+        CachedPrincipal cached = cache.get(email, CachedPrincipal.class);
+        // a token issued after the entry was loaded (e.g. a fresh login) forces a reload
+        if (cached != null && cached.loadedAt() >= issuedAt.getTime()) {
+            return cached.principal();
+        }
+        UserDetails principal = loader.apply(email);
+        cache.put(email, new CachedPrincipal(principal, System.currentTimeMillis()));
+        return principal;
+    }
+
+    public void evict(String email) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.evict(email);
+            return;
+        }
+        // evicted again after commit, a request in between could have cached the old state
+        cache.evict(email);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                cache.evict(email);
+            }
+        });
+    }
+
+    private record CachedPrincipal(UserDetails principal, long loadedAt) {
+    }
+}
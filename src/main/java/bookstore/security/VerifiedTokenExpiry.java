@@ -0,0 +1,25 @@
+package bookstore.security;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import java.util.concurrent.TimeUnit;
+
+public class VerifiedTokenExpiry implements Expiry<Object, Object> {
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+        long millisLeft = ((Claims) value).getExpiration().getTime() - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(millisLeft, 0));
+    }
+
+    @Override
+    public long expireAfterUpdate(Object key, Object value,
+                                  long currentTime, long currentDuration) {
+        return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value,
+                                long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
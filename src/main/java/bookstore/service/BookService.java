@@ -1,9 +1,15 @@
 package bookstore.service;
 
+import bookstore.dto.book.BookCursorPageDto;
 import bookstore.dto.book.BookDto;
 import bookstore.dto.book.BookDtoWithoutCategoryIds;
+import bookstore.dto.book.BookImportProgressDto;
 import bookstore.dto.book.CreateBookRequestDto;
+import bookstore.importer.BookImportFormat;
+import bookstore.importer.BookImportListener;
+import java.io.InputStream;
 import java.util.List;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Pageable;
 
 public interface BookService {
@@ -13,9 +19,22 @@ public interface BookService {
 
     List<BookDto> findAll(Pageable pageable);
 
+    void exportAll(Consumer<BookDto> consumer);
+
+    BookCursorPageDto findAllByCursor(String cursor, Pageable pageable);
+
+    List<BookDto> search(String query, Pageable pageable);
+
     BookDto getById(Long id);
 
+    String getVersionTag(Pageable pageable);
+
+    String getVersionTagByCategoryId(Long categoryId);
+
     void deleteById(Long id);
 
     BookDto updateById(Long id, CreateBookRequestDto requestDto);
+
+    BookImportProgressDto importBooks(InputStream input, BookImportFormat format,
+                                      BookImportListener listener);
 }
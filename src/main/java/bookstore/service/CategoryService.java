@@ -10,6 +10,8 @@ public interface CategoryService {
 
     CategoryDto getById(Long id);
 
+    String getVersionTag(Pageable pageable);
+
     CategoryDto save(CategoryDto categoryDto);
 
     CategoryDto updateById(Long id, CreateCategoryRequestDto requestDto);
@@ -0,0 +1,10 @@
+package bookstore.service;
+
+import bookstore.dto.book.StockDto;
+import bookstore.dto.book.UpdateStockRequestDto;
+
+public interface InventoryService {
+    StockDto getStock(Long bookId);
+
+    StockDto updateStock(Long bookId, UpdateStockRequestDto requestDto);
+}
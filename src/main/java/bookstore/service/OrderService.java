@@ -1,18 +1,32 @@
 package bookstore.service;
 
+import bookstore.dto.order.BulkUpdateOrderStatusRequestDto;
 import bookstore.dto.order.CreateOrderRequestDto;
 import bookstore.dto.order.OrderDto;
+import bookstore.dto.order.OrderSearchParametersDto;
+import bookstore.dto.order.OrderStatusUpdateResultDto;
+import bookstore.dto.order.OrderSummaryDto;
 import bookstore.dto.order.UpdateOrderRequestDto;
 import bookstore.dto.orderitem.OrderItemDto;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
+import org.springframework.data.domain.Pageable;
 
 public interface OrderService {
     OrderDto createOrder(CreateOrderRequestDto requestDto);
 
-    Set<OrderDto> getOrders();
+    List<OrderDto> getOrders(OrderSearchParametersDto searchParameters, Pageable pageable);
+
+    List<OrderSummaryDto> getOrderSummaries(OrderSearchParametersDto searchParameters,
+                                            Pageable pageable);
+
+    void exportOrders(Consumer<OrderDto> consumer);
 
     OrderDto updateOrder(Long orderId, UpdateOrderRequestDto requestDto);
 
+    List<OrderStatusUpdateResultDto> updateOrders(BulkUpdateOrderStatusRequestDto requestDto);
+
     Set<OrderItemDto> getOrderItemsByOrderId(Long orderId);
 
     OrderItemDto getOrderItemFromOrder(Long orderId, Long itemId);
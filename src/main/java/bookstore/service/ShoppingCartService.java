@@ -15,7 +15,9 @@ public interface ShoppingCartService {
 
     CartItemDto updateQuantity(Long id, Long cartItemId, UpdateCartItemRequestDto requestDto);
 
-    void deleteCartItem(Long cartItemId);
+    void deleteCartItem(Long id, Long cartItemId);
+
+    void flushShoppingCart(Long id);
 
     void clearShoppingCart(ShoppingCart shoppingCart);
 }
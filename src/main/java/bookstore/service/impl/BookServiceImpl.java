@@ -1,34 +1,70 @@
 package bookstore.service.impl;
 
+import bookstore.config.CacheConfig;
+import bookstore.dto.book.BookCursorPageDto;
 import bookstore.dto.book.BookDto;
 import bookstore.dto.book.BookDtoWithoutCategoryIds;
+import bookstore.dto.book.BookImportProgressDto;
 import bookstore.dto.book.CreateBookRequestDto;
 import bookstore.exception.EntityNotFoundException;
+import bookstore.importer.BookImportFormat;
+import bookstore.importer.BookImportListener;
+import bookstore.importer.BookImporter;
 import bookstore.mapper.BookMapper;
+import bookstore.mapper.CursorMapper;
 import bookstore.model.Book;
 import bookstore.model.Category;
+import bookstore.repository.BookExportRow;
 import bookstore.repository.BookRepository;
 import bookstore.repository.CategoryRepository;
+import bookstore.repository.EntityVersion;
+import bookstore.search.BookSearchIndex;
 import bookstore.service.BookService;
+import io.micrometer.observation.annotation.Observed;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @RequiredArgsConstructor
+@Observed(name = "service")
 @Service
 public class BookServiceImpl implements BookService {
+    private static final Set<String> SORTABLE_PROPERTIES =
+            Set.of("id", "title", "author", "isbn", "price");
+
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
     private final CategoryRepository categoryRepository;
+    private final CursorMapper cursorMapper;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookImporter bookImporter;
 
+    @CachePut(cacheNames = CacheConfig.BOOKS_CACHE, key = "#result.id")
     @Override
     public BookDto save(CreateBookRequestDto requestDto) {
         Book book = bookMapper.toBook(requestDto);
         book.setCategories(categoriesIdsToCategories(requestDto.categoryIds()));
-        return bookMapper.toDto(bookRepository.save(book));
+        Book savedBook = bookRepository.save(book);
+        bookSearchIndex.index(savedBook);
+        return bookMapper.toDto(savedBook);
     }
 
     @Override
@@ -38,13 +74,72 @@ public class BookServiceImpl implements BookService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<BookDto> findAll(Pageable pageable) {
-        return bookRepository.findAll(pageable).stream()
+        return toDtos(bookRepository.findAll(pageable).getContent());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportAll(Consumer<BookDto> consumer) {
+        try (Stream<BookExportRow> rows = bookRepository.streamAllForExport()) {
+            BookExportRow book = null;
+            List<Long> categoryIds = new ArrayList<>();
+            Iterator<BookExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                BookExportRow row = iterator.next();
+                if (book != null && !book.getId().equals(row.getId())) {
+                    consumer.accept(bookMapper.toDto(book, categoryIds));
+                    categoryIds.clear();
+                }
+                book = row;
+                if (row.getCategoryId() != null) {
+                    categoryIds.add(row.getCategoryId());
+                }
+            }
+            if (book != null) {
+                consumer.accept(bookMapper.toDto(book, categoryIds));
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BookCursorPageDto findAllByCursor(String cursor, Pageable pageable) {
+        KeysetScrollPosition position = cursorMapper.toPosition(cursor, pageable.getSort(),
+                Book.class, SORTABLE_PROPERTIES);
+        Window<Book> window = bookRepository.findBy(Specification.where(null), query -> query
+                .sortBy(pageable.getSort())
+                .limit(pageable.getPageSize())
+                .scroll(position));
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? cursorMapper.toCursor((KeysetScrollPosition) window.positionAt(window.size() - 1))
+                : null;
+        return new BookCursorPageDto(toDtos(window.getContent()), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookDto> search(String query, Pageable pageable) {
+        List<Long> ids = bookSearchIndex.search(query,
+                (int) pageable.getOffset() + pageable.getPageSize());
+        if (ids.size() <= pageable.getOffset()) {
+            return List.of();
+        }
+        List<Long> pageIds = ids.subList((int) pageable.getOffset(), ids.size());
+        Map<Long, Book> books = bookRepository.findAllWithCategoriesByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return pageIds.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
                 .map(bookMapper::toDto)
                 .toList();
     }
 
+    // not read-only, so that a replica that lags behind is never copied into the cache
+    @Cacheable(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id")
+    @Transactional
     @Override
     public BookDto getById(Long id) {
         Book book = bookRepository.findById(id)
@@ -52,18 +147,58 @@ public class BookServiceImpl implements BookService {
         return bookMapper.toDto(book);
     }
 
+    @Override
+    public String getVersionTag(Pageable pageable) {
+        return toVersionTag(bookRepository.findAllVersionsBy(pageable).getContent());
+    }
+
+    @Override
+    public String getVersionTagByCategoryId(Long categoryId) {
+        return toVersionTag(bookRepository.findVersionsByCategoryId(categoryId));
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id")
     @Override
     public void deleteById(Long id) {
         bookRepository.deleteById(id);
+        bookSearchIndex.remove(id);
     }
 
+    @CachePut(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id")
     @Override
     public BookDto updateById(Long id, CreateBookRequestDto requestDto) {
         Book book = bookRepository.findById(id).orElseThrow(()
                 -> new EntityNotFoundException("Can`t find book by id " + id));
         bookMapper.updateBook(requestDto, book);
         book.setCategories(categoriesIdsToCategories(requestDto.categoryIds()));
-        return bookMapper.toDto(bookRepository.save(book));
+        Book savedBook = bookRepository.save(book);
+        bookSearchIndex.index(savedBook);
+        return bookMapper.toDto(savedBook);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, allEntries = true)
+    @Override
+    public BookImportProgressDto importBooks(InputStream input, BookImportFormat format,
+                                             BookImportListener listener) {
+        return bookImporter.importBooks(input, format, listener);
+    }
+
+    private List<BookDto> toDtos(List<Book> books) {
+        if (!books.isEmpty()) {
+            // initializes the categories of the whole page in one query before mapping
+            bookRepository.findAllWithCategoriesByIdIn(books.stream()
+                    .map(Book::getId)
+                    .toList());
+        }
+        return books.stream()
+                .map(bookMapper::toDto)
+                .toList();
+    }
+
+    private String toVersionTag(List<EntityVersion> versions) {
+        return versions.stream()
+                .map(version -> version.getId() + ":" + version.getVersion())
+                .collect(Collectors.joining(","));
     }
 
     private Set<Category> categoriesIdsToCategories(Set<Long> categories) {
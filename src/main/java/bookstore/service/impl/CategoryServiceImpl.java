@@ -1,23 +1,45 @@
 package bookstore.service.impl;
 
+import bookstore.config.CacheConfig;
 import bookstore.dto.category.CategoryDto;
 import bookstore.dto.category.CreateCategoryRequestDto;
 import bookstore.exception.EntityNotFoundException;
 import bookstore.mapper.CategoryMapper;
+import bookstore.model.Book;
 import bookstore.model.Category;
+import bookstore.repository.BookRepository;
 import bookstore.repository.CategoryRepository;
 import bookstore.service.CategoryService;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManagerFactory;
 import java.util.List;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+@Observed(name = "service")
 @Service
 @RequiredArgsConstructor
 public class CategoryServiceImpl implements CategoryService {
+    private static final String BOOK_CATEGORIES_ROLE = Book.class.getName() + ".categories";
+
     private final CategoryMapper categoryMapper;
     private final CategoryRepository categoryRepository;
+    private final BookRepository bookRepository;
+    private final EntityManagerFactory entityManagerFactory;
 
+    // cached reads are not read-only and so go to the primary, like the cached book
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_PAGES_CACHE, key = "#pageable")
+    @Transactional
     @Override
     public List<CategoryDto> findAll(Pageable pageable) {
         return categoryRepository.findAll(pageable).stream()
@@ -25,6 +47,8 @@ public class CategoryServiceImpl implements CategoryService {
                 .toList();
     }
 
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES_CACHE, key = "#id")
+    @Transactional
     @Override
     public CategoryDto getById(Long id) {
         return categoryRepository.findById(id).stream()
@@ -33,12 +57,28 @@ public class CategoryServiceImpl implements CategoryService {
                 .orElseThrow(() -> new EntityNotFoundException("Can`t find category by id " + id));
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public String getVersionTag(Pageable pageable) {
+        return categoryRepository.findAllVersionsBy(pageable).stream()
+                .map(version -> version.getId() + ":" + version.getVersion())
+                .collect(Collectors.joining(","));
+    }
+
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.CATEGORIES_CACHE, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.CATEGORY_PAGES_CACHE, allEntries = true)
+    )
     @Override
     public CategoryDto save(CategoryDto categoryDto) {
         Category category = categoryMapper.toCategory(categoryDto);
         return categoryMapper.toDto(categoryRepository.save(category));
     }
 
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.CATEGORIES_CACHE, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.CATEGORY_PAGES_CACHE, allEntries = true)
+    )
     @Override
     public CategoryDto updateById(Long id, CreateCategoryRequestDto requestDto) {
         Category category = categoryRepository.findById(id).orElseThrow(()
@@ -47,8 +87,23 @@ public class CategoryServiceImpl implements CategoryService {
         return categoryMapper.toDto(categoryRepository.save(category));
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORIES_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_PAGES_CACHE, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, allEntries = true)
+    })
+    @Transactional
     @Override
     public void deleteById(Long id) {
+        bookRepository.incrementVersionsByCategoryId(id);
         categoryRepository.deleteById(id);
+        // soft delete keeps the links, so cached book categories would still point to it
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityManagerFactory.unwrap(SessionFactory.class).getCache()
+                        .evictCollectionData(BOOK_CATEGORIES_ROLE);
+            }
+        });
     }
 }
@@ -0,0 +1,41 @@
+package bookstore.service.impl;
+
+import bookstore.dto.book.StockDto;
+import bookstore.dto.book.UpdateStockRequestDto;
+import bookstore.exception.EntityNotFoundException;
+import bookstore.inventory.Inventory;
+import bookstore.repository.BookRepository;
+import bookstore.service.InventoryService;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Observed(name = "service")
+@Service
+@RequiredArgsConstructor
+public class InventoryServiceImpl implements InventoryService {
+    private final Inventory inventory;
+    private final BookRepository bookRepository;
+
+    @Transactional(readOnly = true)
+    @Override
+    public StockDto getStock(Long bookId) {
+        checkBookExists(bookId);
+        return new StockDto(bookId, inventory.getAvailable(bookId));
+    }
+
+    @Transactional
+    @Override
+    public StockDto updateStock(Long bookId, UpdateStockRequestDto requestDto) {
+        checkBookExists(bookId);
+        inventory.setAvailable(bookId, requestDto.available());
+        return new StockDto(bookId, requestDto.available());
+    }
+
+    private void checkBookExists(Long bookId) {
+        if (!bookRepository.existsById(bookId)) {
+            throw new EntityNotFoundException("Can`t find book by id " + bookId);
+        }
+    }
+}
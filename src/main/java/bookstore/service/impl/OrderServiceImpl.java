@@ -1,10 +1,17 @@
 package bookstore.service.impl;
 
+import bookstore.dto.order.BulkUpdateOrderStatusRequestDto;
 import bookstore.dto.order.CreateOrderRequestDto;
 import bookstore.dto.order.OrderDto;
+import bookstore.dto.order.OrderSearchParametersDto;
+import bookstore.dto.order.OrderStatusUpdateResultDto;
+import bookstore.dto.order.OrderSummaryDto;
 import bookstore.dto.order.UpdateOrderRequestDto;
 import bookstore.dto.orderitem.OrderItemDto;
+import bookstore.exception.EmptyShoppingCartException;
 import bookstore.exception.EntityNotFoundException;
+import bookstore.exception.InvalidOrderStatusTransitionException;
+import bookstore.inventory.Inventory;
 import bookstore.mapper.OrderItemMapper;
 import bookstore.mapper.OrderMapper;
 import bookstore.model.CartItem;
@@ -12,61 +19,149 @@ import bookstore.model.Order;
 import bookstore.model.OrderItem;
 import bookstore.model.ShoppingCart;
 import bookstore.model.User;
+import bookstore.order.OrderStatusTransitions;
+import bookstore.outbox.Outbox;
+import bookstore.outbox.OutboxEventType;
+import bookstore.repository.OrderExportRow;
 import bookstore.repository.OrderItemRepository;
 import bookstore.repository.OrderRepository;
 import bookstore.repository.ShoppingCartRepository;
 import bookstore.service.OrderService;
 import bookstore.service.ShoppingCartService;
+import io.micrometer.observation.annotation.Observed;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+@Observed(name = "service")
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
+    private static final Sort HISTORY_SORT = Sort.by(Sort.Direction.DESC, "orderDate", "id");
+
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final OrderMapper orderMapper;
     private final OrderItemMapper orderItemMapper;
     private final ShoppingCartRepository shoppingCartRepository;
     private final ShoppingCartService shoppingCartService;
+    private final Inventory inventory;
+    private final Outbox outbox;
+    private final OrderStatusTransitions orderStatusTransitions;
 
     @Transactional
     @Override
     public OrderDto createOrder(CreateOrderRequestDto requestDto) {
         Order order = getOrder(requestDto);
         ShoppingCart shoppingCart = getShoppingCart();
-        Set<OrderItem> orderItems = createOrderItems(order, shoppingCart);
-        order.setOrderItems(orderItems);
+        if (shoppingCart.getCartItems().isEmpty()) {
+            throw new EmptyShoppingCartException("Can`t create an order from an empty "
+                    + "shopping cart of user with id " + shoppingCart.getId());
+        }
+        createOrderItems(order, shoppingCart);
+        Order savedOrder = orderRepository.save(order);
         shoppingCartService.clearShoppingCart(shoppingCart);
-        return orderMapper.toDto(orderRepository.save(order));
+        orderRepository.flush();
+        OrderDto orderDto = orderMapper.toDto(savedOrder);
+        outbox.publish(OutboxEventType.ORDER_CREATED, savedOrder.getId(), orderDto);
+        // stock rows stay locked until commit, so they are taken last
+        inventory.reserve(savedOrder.getId(), getQuantities(savedOrder));
+        return orderDto;
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public Set<OrderDto> getOrders() {
-        return orderRepository.findByUserId(getUser().getId()).stream()
+    public List<OrderDto> getOrders(OrderSearchParametersDto searchParameters,
+                                    Pageable pageable) {
+        List<Order> orders = findOrders(searchParameters, pageable);
+        if (!orders.isEmpty()) {
+            // initializes the items of the whole page in one query before mapping
+            orderRepository.findAllWithOrderItemsByIdIn(orders.stream()
+                    .map(Order::getId)
+                    .toList());
+        }
+        return orders.stream()
                 .map(orderMapper::toDto)
-                .collect(Collectors.toSet());
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<OrderSummaryDto> getOrderSummaries(OrderSearchParametersDto searchParameters,
+                                                   Pageable pageable) {
+        return findOrders(searchParameters, pageable).stream()
+                .map(orderMapper::toSummaryDto)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportOrders(Consumer<OrderDto> consumer) {
+        try (Stream<OrderExportRow> rows =
+                     orderRepository.streamAllForExportByUserId(getUser().getId())) {
+            OrderExportRow order = null;
+            Set<OrderItemDto> orderItems = new HashSet<>();
+            Iterator<OrderExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                OrderExportRow row = iterator.next();
+                if (order != null && !order.getId().equals(row.getId())) {
+                    consumer.accept(orderMapper.toDto(order, orderItems));
+                    orderItems.clear();
+                }
+                order = row;
+                if (row.getItemId() != null) {
+                    orderItems.add(orderMapper.toOrderItemDto(row));
+                }
+            }
+            if (order != null) {
+                consumer.accept(orderMapper.toDto(order, orderItems));
+            }
+        }
     }
 
     @Transactional
     @Override
     public OrderDto updateOrder(Long orderId, UpdateOrderRequestDto requestDto) {
-        Order order = getOrder(orderId);
-        order.setStatus(Order.Status.valueOf(requestDto.status()));
-        return orderMapper.toDto(orderRepository.save(order));
+        Order.Status status = requestDto.status();
+        OrderStatusUpdateResultDto result = orderStatusTransitions.apply(orderId, status);
+        if (result.outcome() == OrderStatusUpdateResultDto.Outcome.NOT_FOUND) {
+            throw new EntityNotFoundException("Cant find order by id" + orderId);
+        }
+        if (result.outcome() == OrderStatusUpdateResultDto.Outcome.INVALID_TRANSITION) {
+            throw new InvalidOrderStatusTransitionException("Can`t change status of order with id "
+                    + orderId + " from " + result.status() + " to " + status);
+        }
+        return orderMapper.toDto(getOrder(orderId));
     }
 
+    // not transactional, every batch of orders is committed separately
+    @Override
+    public List<OrderStatusUpdateResultDto> updateOrders(
+            BulkUpdateOrderStatusRequestDto requestDto) {
+        return orderStatusTransitions.apply(requestDto.orderIds(), requestDto.status());
+    }
+
+    @Transactional(readOnly = true)
     @Override
     public Set<OrderItemDto> getOrderItemsByOrderId(Long orderId) {
-        Order order = getOrder(orderId);
+        Order order = orderRepository.findWithOrderItemsById(orderId).orElseThrow(()
+                -> new EntityNotFoundException("Cant find order by id" + orderId));
         return order.getOrderItems().stream()
                 .map(orderItemMapper::toDto)
                 .collect(Collectors.toSet());
@@ -80,6 +175,31 @@ public class OrderServiceImpl implements OrderService {
         return orderItemMapper.toDto(orderItem);
     }
 
+    private List<Order> findOrders(OrderSearchParametersDto searchParameters,
+                                   Pageable pageable) {
+        Long userId = getUser().getId();
+        Specification<Order> specification = (root, query, builder) ->
+                builder.equal(root.get("user").get("id"), userId);
+        if (searchParameters.status() != null) {
+            specification = specification.and((root, query, builder) ->
+                    builder.equal(root.get("status"), searchParameters.status()));
+        }
+        if (searchParameters.from() != null) {
+            specification = specification.and((root, query, builder) ->
+                    builder.greaterThanOrEqualTo(root.get("orderDate"), searchParameters.from()));
+        }
+        if (searchParameters.to() != null) {
+            specification = specification.and((root, query, builder) ->
+                    builder.lessThan(root.get("orderDate"), searchParameters.to()));
+        }
+        // an offset window runs no COUNT query, unlike findAll with a PageRequest
+        return orderRepository.findBy(specification, query -> query
+                .sortBy(HISTORY_SORT)
+                .limit(pageable.getPageSize())
+                .scroll(ScrollPosition.offset(pageable.getOffset())))
+                .getContent();
+    }
+
     private Order getOrder(CreateOrderRequestDto requestDto) {
         Order order = new Order();
         order.setUser(getUser());
@@ -102,27 +222,21 @@ public class OrderServiceImpl implements OrderService {
 
     private ShoppingCart getShoppingCart() {
         Long userId = getUser().getId();
-        return shoppingCartRepository.findById(userId).orElseThrow(()
+        shoppingCartService.flushShoppingCart(userId);
+        return shoppingCartRepository.findWithCartItemsById(userId).orElseThrow(()
                 -> new EntityNotFoundException("Can`t find shopping cart for user with id "
                 + userId));
     }
 
-    private Set<OrderItem> createOrderItems(Order order, ShoppingCart shoppingCart) {
-        Set<CartItem> cartItems = shoppingCart.getCartItems();
-        Set<OrderItem> orderItems = new HashSet<>();
-        BigDecimal newTotal = BigDecimal.ZERO;
-        Order savedOrder = orderRepository.save(order);
-        for (CartItem cartItem: cartItems) {
-            OrderItem orderItem = orderItemMapper.toOrderItem(cartItem);
-            orderItem.setOrder(savedOrder);
-            OrderItem savedOrderItem = orderItemRepository.save(orderItem);
-            orderItems.add(savedOrderItem);
-            BigDecimal itemTotal = savedOrderItem.getPrice()
-                    .multiply(BigDecimal.valueOf(savedOrderItem.getQuantity()));
-            newTotal = newTotal.add(itemTotal);
+    private Map<Long, Integer> getQuantities(Order order) {
+        return order.getOrderItems().stream()
+                .collect(Collectors.toMap(orderItem -> orderItem.getBook().getId(),
+                        OrderItem::getQuantity, Integer::sum));
+    }
+
+    private void createOrderItems(Order order, ShoppingCart shoppingCart) {
+        for (CartItem cartItem: shoppingCart.getCartItems()) {
+            order.addOrderItem(orderItemMapper.toOrderItem(cartItem));
         }
-        savedOrder.getOrderItems().addAll(orderItems);
-        savedOrder.setTotal(order.getTotal().add(newTotal));
-        return orderItems;
     }
 }
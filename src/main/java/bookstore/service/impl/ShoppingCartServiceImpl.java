@@ -1,76 +1,79 @@
 package bookstore.service.impl;
 
+import bookstore.cart.CartStore;
+import bookstore.dto.book.BookDto;
 import bookstore.dto.cartitem.CartItemDto;
 import bookstore.dto.cartitem.CreateRequestCartItemDto;
 import bookstore.dto.cartitem.UpdateCartItemRequestDto;
 import bookstore.dto.shoppingcart.ShoppingCartDto;
 import bookstore.exception.EntityNotFoundException;
-import bookstore.mapper.CartItemMapper;
-import bookstore.mapper.ShoppingCartMapper;
-import bookstore.model.Book;
-import bookstore.model.CartItem;
 import bookstore.model.ShoppingCart;
 import bookstore.model.User;
-import bookstore.repository.BookRepository;
-import bookstore.repository.CartItemRepository;
 import bookstore.repository.ShoppingCartRepository;
 import bookstore.repository.UserRepository;
+import bookstore.service.BookService;
 import bookstore.service.ShoppingCartService;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+@Observed(name = "service")
 @Service
 @RequiredArgsConstructor
 public class ShoppingCartServiceImpl implements ShoppingCartService {
     private final ShoppingCartRepository shoppingCartRepository;
-    private final ShoppingCartMapper shoppingCartMapper;
-    private final CartItemRepository cartItemRepository;
-    private final BookRepository bookRepository;
-    private final CartItemMapper cartItemMapper;
     private final UserRepository userRepository;
+    private final BookService bookService;
+    private final CartStore cartStore;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public ShoppingCartDto findById(Long id) {
-        return shoppingCartRepository.findById(id)
-                .map(shoppingCartMapper::toDto)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        "Can't find a shopping cart for user with id " + id));
+        return cartStore.getCart(id);
     }
 
-    @Transactional
     @Override
     public ShoppingCartDto addCartItemToCart(Long id, CreateRequestCartItemDto requestCartItemDto) {
-        ShoppingCart shoppingCart = shoppingCartRepository.findById(id)
-                .orElseGet(() -> createShoppingCart(id));
-        Book book = bookRepository.findById(requestCartItemDto.bookId()).orElseThrow(()
-                -> new EntityNotFoundException("Can`t find book by id "
-                + requestCartItemDto.bookId()));
-        CartItem cartItem = createCartItem(requestCartItemDto, book, shoppingCart);
-        cartItemRepository.save(cartItem);
-        shoppingCart.getCartItems().add(cartItem);
-        return shoppingCartMapper.toDto(shoppingCart);
+        if (!cartStore.hasCart(id)) {
+            createShoppingCartIfAbsent(id);
+        }
+        BookDto book = bookService.getById(requestCartItemDto.bookId());
+        return cartStore.addItem(id, book.id(), book.title(),
+                requestCartItemDto.quantity());
     }
 
-    @Transactional
     @Override
     public CartItemDto updateQuantity(Long id, Long cartItemId,
                                       UpdateCartItemRequestDto requestDto) {
-        CartItem cartItem = cartItemRepository.findById(cartItemId).orElseThrow(()
-                -> new EntityNotFoundException("Can`t find cart item by id " + cartItemId));
-        cartItem.setQuantity(requestDto.quantity());
-        return cartItemMapper.toDto(cartItemRepository.save(cartItem));
+        return cartStore.updateQuantity(id, cartItemId, requestDto.quantity());
     }
 
-    @Transactional
     @Override
-    public void deleteCartItem(Long cartItemId) {
-        cartItemRepository.deleteById(cartItemId);
+    public void deleteCartItem(Long id, Long cartItemId) {
+        cartStore.removeItem(id, cartItemId);
     }
 
-    @Transactional
+    @Override
+    public void flushShoppingCart(Long id) {
+        cartStore.flush(id);
+    }
+
+    @Override
     public void clearShoppingCart(ShoppingCart shoppingCart) {
-        cartItemRepository.deleteAll(shoppingCart.getCartItems());
+        cartStore.clear(shoppingCart.getId());
+    }
+
+    private void createShoppingCartIfAbsent(Long userId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> createShoppingCart(userId));
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent first add created the cart between the check and the insert
+            if (!cartStore.hasCart(userId)) {
+                throw e;
+            }
+        }
     }
 
     private ShoppingCart createShoppingCart(Long userId) {
@@ -80,13 +83,4 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
         shoppingCart.setUser(user);
         return shoppingCartRepository.save(shoppingCart);
     }
-
-    private CartItem createCartItem(CreateRequestCartItemDto requestCartItemDto,
-                                    Book book, ShoppingCart shoppingCart) {
-        CartItem cartItem = new CartItem();
-        cartItem.setBook(book);
-        cartItem.setQuantity(requestCartItemDto.quantity());
-        cartItem.setShoppingCart(shoppingCart);
-        return cartItem;
-    }
 }
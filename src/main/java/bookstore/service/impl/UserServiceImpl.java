@@ -9,11 +9,13 @@ import bookstore.model.User;
 import bookstore.repository.RoleRepository;
 import bookstore.repository.UserRepository;
 import bookstore.service.UserService;
+import io.micrometer.observation.annotation.Observed;
 import java.util.Collections;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+@Observed(name = "service")
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
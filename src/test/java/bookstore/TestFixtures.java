@@ -0,0 +1,127 @@
+package bookstore;
+
+import bookstore.model.Book;
+import bookstore.model.CartItem;
+import bookstore.model.Category;
+import bookstore.model.Order;
+import bookstore.model.Role;
+import bookstore.model.ShoppingCart;
+import bookstore.model.User;
+import bookstore.repository.BookRepository;
+import bookstore.repository.CartItemRepository;
+import bookstore.repository.CategoryRepository;
+import bookstore.repository.OrderRepository;
+import bookstore.repository.RoleRepository;
+import bookstore.repository.ShoppingCartRepository;
+import bookstore.repository.UserRepository;
+import bookstore.security.JwtUtil;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@RequiredArgsConstructor
+public class TestFixtures {
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final BookRepository bookRepository;
+    private final CategoryRepository categoryRepository;
+    private final OrderRepository orderRepository;
+    private final ShoppingCartRepository shoppingCartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final JwtUtil jwtUtil;
+
+    public User createUser(String email) {
+        return userRepository.save(newUser(email));
+    }
+
+    public User createUser(String email, Role.RoleName roleName) {
+        User user = newUser(email);
+        user.getRoles().add(roleRepository.findByName(roleName));
+        return userRepository.save(user);
+    }
+
+    @Transactional
+    public User createUserWithCart(String email) {
+        User user = createUser(email);
+        createShoppingCart(user);
+        return user;
+    }
+
+    public ShoppingCart createShoppingCart(User user) {
+        ShoppingCart shoppingCart = new ShoppingCart();
+        shoppingCart.setUser(user);
+        return shoppingCartRepository.save(shoppingCart);
+    }
+
+    public CartItem createCartItem(ShoppingCart shoppingCart, Book book) {
+        CartItem cartItem = new CartItem();
+        cartItem.setShoppingCart(shoppingCart);
+        cartItem.setBook(book);
+        cartItem.setQuantity(1);
+        return cartItemRepository.save(cartItem);
+    }
+
+    public Category createCategory(String name) {
+        Category category = new Category();
+        category.setName(name);
+        return categoryRepository.save(category);
+    }
+
+    public Book createBook(String isbn) {
+        return createBook(isbn, BigDecimal.TEN);
+    }
+
+    public Book createBook(String isbn, BigDecimal price) {
+        return createBook(isbn, price, Set.of());
+    }
+
+    public Book createBook(String isbn, BigDecimal price, Set<Category> categories) {
+        Book book = new Book();
+        book.setTitle("Title " + isbn);
+        book.setAuthor("Author");
+        book.setIsbn(isbn);
+        book.setPrice(price);
+        book.setCategories(new HashSet<>(categories));
+        return bookRepository.save(book);
+    }
+
+    public Order createOrder(User user) {
+        return createOrder(user, Order.Status.PENDING);
+    }
+
+    public Order createOrder(User user, Order.Status status) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setStatus(status);
+        order.setTotal(BigDecimal.ZERO);
+        order.setOrderDate(LocalDateTime.now());
+        order.setShippingAddress("Kyiv");
+        return orderRepository.save(order);
+    }
+
+    public String createBearerToken(String email, Role.RoleName roleName) {
+        createUser(email, roleName);
+        return "Bearer " + jwtUtil.generateToken(email);
+    }
+
+    public void authenticate(User user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private User newUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setFirstName("First");
+        user.setLastName("Last");
+        return user;
+    }
+}
@@ -0,0 +1,165 @@
+package bookstore.cart;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import bookstore.TestFixtures;
+import bookstore.dto.cartitem.CartItemDto;
+import bookstore.dto.cartitem.CreateRequestCartItemDto;
+import bookstore.dto.order.CreateOrderRequestDto;
+import bookstore.dto.order.OrderDto;
+import bookstore.inventory.Inventory;
+import bookstore.model.User;
+import bookstore.service.OrderService;
+import bookstore.service.ShoppingCartService;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@SpringBootTest(properties = {
+        "cart.store.type=write-behind",
+        "cart.store.flush-interval=PT1H",
+        "cart.store.journal-dir=target/cart-journal-write-behind"})
+class WriteBehindCartStoreTests {
+    private static final String COUNT_CART_ITEMS =
+            "SELECT COALESCE(SUM(quantity), 0) FROM cart_items WHERE shopping_cart_id = ?";
+    private static final int WRITERS = 8;
+    private static final int ENTRIES_PER_WRITER = 50;
+
+    @Autowired
+    private WriteBehindCartStore cartStore;
+    @Autowired
+    private ShoppingCartService shoppingCartService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private CartItemIdGenerator cartItemIdGenerator;
+    @Autowired
+    private Inventory inventory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void addCartItemToCart_coalescesMutationsUntilFlushed() {
+        Long cartId = fixtures.createUserWithCart("write-behind@example.com").getId();
+        final Long bookId = fixtures.createBook("write-behind-book").getId();
+
+        for (int i = 0; i < 3; i++) {
+            shoppingCartService.addCartItemToCart(cartId, new CreateRequestCartItemDto(bookId, 1));
+        }
+
+        CartItemDto cartItem = shoppingCartService.findById(cartId).cartItems().iterator().next();
+        assertEquals(3, cartItem.quantity());
+        assertEquals(0, countQuantity(cartId));
+
+        cartStore.flushAll();
+        assertEquals(3, countQuantity(cartId));
+    }
+
+    @Test
+    void createOrder_flushesPendingMutationsAndClearsCart() {
+        User user = fixtures.createUserWithCart("write-behind-order@example.com");
+        final Long bookId = fixtures.createBook("write-behind-order-book").getId();
+        inventory.setAvailable(bookId, 2);
+        shoppingCartService.addCartItemToCart(user.getId(),
+                new CreateRequestCartItemDto(bookId, 2));
+        fixtures.authenticate(user);
+
+        OrderDto order = orderService.createOrder(new CreateOrderRequestDto("Kyiv"));
+
+        assertEquals(2, order.orderItems().iterator().next().quantity());
+        assertTrue(shoppingCartService.findById(user.getId()).cartItems().isEmpty());
+        assertEquals(0, countQuantity(user.getId()));
+    }
+
+    @Test
+    void recover_replaysJournalIntoDatabase(@TempDir Path journalDirectory) throws IOException {
+        Long cartId = fixtures.createUserWithCart("write-behind-recover@example.com").getId();
+        final Long bookId = fixtures.createBook("write-behind-recover-book").getId();
+        try (CartJournal journal = new CartJournal(journalDirectory)) {
+            journal.open();
+            journal.append(CartJournal.Entry.set(cartId, cartItemIdGenerator.nextId(), bookId, 4));
+        }
+
+        new WriteBehindCartStore(jdbcTemplate, transactionManager, cartItemIdGenerator,
+                journalDirectory, Duration.ofMinutes(1)).recover();
+
+        assertEquals(4, countQuantity(cartId));
+        try (Stream<Path> segments = Files.list(journalDirectory)) {
+            assertEquals(1, segments.count());
+        }
+    }
+
+    @Test
+    void recover_crashAfterCheckoutCommit_doesNotRestoreOrderedLines(
+            @TempDir Path journalDirectory) {
+        Long cartId = fixtures.createUserWithCart("write-behind-crash@example.com").getId();
+        final Long bookId = fixtures.createBook("write-behind-crash-book").getId();
+        WriteBehindCartStore crashed = new WriteBehindCartStore(jdbcTemplate, transactionManager,
+                cartItemIdGenerator, journalDirectory, Duration.ofMinutes(1));
+        crashed.recover();
+        crashed.addItem(cartId, bookId, "Crash", 2);
+        crashed.flush(cartId);
+        // the checkout commit deletes the ordered lines, then the process dies
+        jdbcTemplate.update("DELETE FROM cart_items WHERE shopping_cart_id = ?", cartId);
+
+        new WriteBehindCartStore(jdbcTemplate, transactionManager, cartItemIdGenerator,
+                journalDirectory, Duration.ofMinutes(1)).recover();
+
+        assertEquals(0, countQuantity(cartId));
+    }
+
+    @Test
+    void sync_concurrentWriters_keepsEveryEntry(@TempDir Path journalDirectory)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try (CartJournal journal = new CartJournal(journalDirectory)) {
+            journal.open();
+            List<Future<?>> writers = new ArrayList<>();
+            for (int writer = 0; writer < WRITERS; writer++) {
+                long cartId = writer;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < ENTRIES_PER_WRITER; i++) {
+                        journal.append(CartJournal.Entry.set(cartId, i, 1, 1));
+                        journal.sync();
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+
+            assertEquals(WRITERS * ENTRIES_PER_WRITER, journal.replay().size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private long countQuantity(Long cartId) {
+        return jdbcTemplate.queryForObject(COUNT_CART_ITEMS, Long.class, cartId);
+    }
+}
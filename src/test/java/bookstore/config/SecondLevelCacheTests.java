@@ -0,0 +1,83 @@
+package bookstore.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import bookstore.TestFixtures;
+import bookstore.model.Book;
+import bookstore.model.Category;
+import bookstore.model.Role;
+import bookstore.repository.BookRepository;
+import bookstore.repository.RoleRepository;
+import bookstore.service.CategoryService;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+class SecondLevelCacheTests {
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findByName_secondLookupHitsQueryCache() {
+        roleRepository.findByName(Role.RoleName.ROLE_USER);
+
+        statistics.clear();
+        Role role = roleRepository.findByName(Role.RoleName.ROLE_USER);
+
+        assertEquals(Role.RoleName.ROLE_USER, role.getName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void bookCategories_areCachedAndDropSoftDeletedCategory() {
+        Category kept = fixtures.createCategory("cache-kept");
+        Category deleted = fixtures.createCategory("cache-deleted");
+        Long bookId = fixtures.createBook("cache-1", BigDecimal.ONE, Set.of(kept, deleted)).getId();
+        assertEquals(Set.of(kept.getId(), deleted.getId()), getCategoryIds(bookId));
+
+        statistics.clear();
+        assertEquals(Set.of(kept.getId(), deleted.getId()), getCategoryIds(bookId));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getDomainDataRegionStatistics(Book.class.getName() + ".categories")
+                .getHitCount() > 0);
+
+        categoryService.deleteById(deleted.getId());
+
+        assertEquals(Set.of(kept.getId()), getCategoryIds(bookId));
+    }
+
+    private Set<Long> getCategoryIds(Long bookId) {
+        return transactionTemplate.execute(status -> bookRepository.findById(bookId)
+                .orElseThrow()
+                .getCategories().stream()
+                .map(Category::getId)
+                .collect(Collectors.toSet()));
+    }
+}
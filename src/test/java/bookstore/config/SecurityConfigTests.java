@@ -0,0 +1,43 @@
+package bookstore.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import bookstore.TestFixtures;
+import bookstore.model.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SecurityConfigTests {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void actuator_user_isForbidden() throws Exception {
+        String token = fixtures.createBearerToken("actuator-user@example.com",
+                Role.RoleName.ROLE_USER);
+
+        mockMvc.perform(delete("/actuator/caches").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void actuator_admin_isAllowed() throws Exception {
+        String token = fixtures.createBearerToken("actuator-admin@example.com",
+                Role.RoleName.ROLE_ADMIN);
+
+        mockMvc.perform(get("/actuator/metrics").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,42 @@
+package bookstore.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+class VirtualThreadConfigTests {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadConfig.class);
+
+    @Test
+    void virtualThreads_notEnabled_keepPlatformThreads() {
+        contextRunner.run(context -> assertThat(context)
+                .doesNotHaveBean(ExecutorService.class));
+    }
+
+    @Test
+    void virtualThreads_bootPropertyOnly_keepPlatformThreads() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(context -> assertThat(context)
+                        .doesNotHaveBean(ExecutorService.class));
+    }
+
+    @Test
+    void virtualThreads_enabled_replaceRequestAndTaskExecutors() {
+        contextRunner.withPropertyValues("app.virtual-threads.enabled=true")
+                .run(context -> {
+                    if (Runtime.version().feature() < 21) {
+                        assertThat(context).hasFailed();
+                        assertThat(context.getStartupFailure())
+                                .hasRootCauseInstanceOf(NoSuchMethodException.class);
+                        return;
+                    }
+                    assertThat(context).hasSingleBean(ExecutorService.class);
+                    assertThat(context).hasBean("virtualThreadProtocolHandlerCustomizer");
+                    assertThat(context).hasBean("applicationTaskExecutor");
+                    assertThat(context).hasBean("taskExecutor");
+                });
+    }
+}
@@ -0,0 +1,106 @@
+package bookstore.controller;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import bookstore.TestFixtures;
+import bookstore.dto.book.CreateBookRequestDto;
+import bookstore.model.Category;
+import bookstore.model.Role;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookControllerTests {
+    private static final String LATEST_BOOKS = "/books?sort=id,desc";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private ObjectMapper objectMapper;
+    private String userToken;
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        userToken = fixtures.createBearerToken("etag-user-" + suffix + "@example.com",
+                Role.RoleName.ROLE_USER);
+        adminToken = fixtures.createBearerToken("etag-admin-" + suffix + "@example.com",
+                Role.RoleName.ROLE_ADMIN);
+    }
+
+    @Test
+    void getBookById_matchingIfNoneMatch_returnsNotModified() throws Exception {
+        Long id = fixtures.createBook("etag-304").getId();
+        String etag = getETag("/books/" + id);
+
+        mockMvc.perform(get("/books/" + id)
+                        .header(HttpHeaders.AUTHORIZATION, userToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getBookById_afterUpdate_returnsNewETag() throws Exception {
+        Long id = fixtures.createBook("etag-update").getId();
+        String etag = getETag("/books/" + id);
+
+        mockMvc.perform(put("/books/" + id)
+                        .header(HttpHeaders.AUTHORIZATION, adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateBookRequestDto(
+                                "Renamed", "Author", "etag-update", BigDecimal.ONE, null, null,
+                                Set.of()))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/books/" + id)
+                        .header(HttpHeaders.AUTHORIZATION, userToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        assertNotEquals(etag, getETag("/books/" + id));
+    }
+
+    @Test
+    void getAll_categoryOfListedBookDeleted_returnsNewETag() throws Exception {
+        Category category = fixtures.createCategory("etag-fiction");
+        fixtures.createBook("etag-category", BigDecimal.ONE, Set.of(category));
+        String etag = getETag(LATEST_BOOKS);
+
+        mockMvc.perform(delete("/categories/" + category.getId())
+                        .header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get(LATEST_BOOKS)
+                        .header(HttpHeaders.AUTHORIZATION, userToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        assertNotEquals(etag, getETag(LATEST_BOOKS));
+    }
+
+    private String getETag(String url) throws Exception {
+        String etag = mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, userToken))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+}
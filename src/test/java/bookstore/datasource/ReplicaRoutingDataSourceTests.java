@@ -0,0 +1,173 @@
+package bookstore.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import bookstore.TestFixtures;
+import bookstore.dto.order.OrderSearchParametersDto;
+import bookstore.model.Category;
+import bookstore.model.User;
+import bookstore.repository.BookRepository;
+import bookstore.service.BookService;
+import bookstore.service.OrderService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(properties = {
+        "datasource.routing.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;LOCK_TIMEOUT=10000",
+        "datasource.replica.jdbc-url=jdbc:h2:mem:routing-replica;MODE=MySQL",
+        "datasource.replica.username=sa",
+        "datasource.replica.password=password"})
+class ReplicaRoutingDataSourceTests {
+    private static final String SNAPSHOT = "target/routing-replica.sql";
+    private static final OrderSearchParametersDto NO_FILTERS =
+            new OrderSearchParametersDto(null, null, null);
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private UserDetailsService userDetailsService;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getOrders_readOnly_readsFromReplica() {
+        User user = fixtures.createUser("replica-reader@example.com");
+        replicate();
+        fixtures.createOrder(user);
+
+        fixtures.authenticate(user);
+        assertEquals(0, orderService.getOrders(NO_FILTERS, PAGE).size());
+
+        replicate();
+        assertEquals(1, orderService.getOrders(NO_FILTERS, PAGE).size());
+    }
+
+    @Test
+    void getOrders_afterOwnWrite_readsFromPrimary() {
+        User writer = fixtures.createUser("replica-writer@example.com");
+        User reader = fixtures.createUser("replica-other@example.com");
+        replicate();
+        fixtures.createOrder(reader);
+
+        fixtures.authenticate(writer);
+        transactionTemplate.executeWithoutResult(status -> fixtures.createOrder(writer));
+        assertEquals(1, orderService.getOrders(NO_FILTERS, PAGE).size());
+
+        fixtures.authenticate(reader);
+        assertEquals(0, orderService.getOrders(NO_FILTERS, PAGE).size());
+    }
+
+    @Test
+    void getOrders_afterReadWriteTransactionWithoutWrites_readsFromReplica() {
+        User user = fixtures.createUser("replica-browser@example.com");
+        replicate();
+        fixtures.createOrder(user);
+
+        fixtures.authenticate(user);
+        transactionTemplate.execute(status -> bookRepository.count());
+        assertEquals(0, orderService.getOrders(NO_FILTERS, PAGE).size());
+    }
+
+    @Test
+    void loadUserByUsername_userNotReplicated_readsFromPrimary() {
+        replicate();
+        fixtures.createUser("replica-signup@example.com");
+
+        assertEquals("replica-signup@example.com",
+                userDetailsService.loadUserByUsername("replica-signup@example.com").getUsername());
+    }
+
+    @Test
+    void getById_bookNotReplicated_cachesBookFromPrimary() {
+        replicate();
+        Long bookId = fixtures.createBook("replica-cached").getId();
+
+        assertEquals("Title replica-cached", bookService.getById(bookId).title());
+    }
+
+    @Test
+    void readOnlyLoad_fromLaggingReplica_isNotPutInSecondLevelCache() {
+        Category category = fixtures.createCategory("replica-fiction");
+        Long bookId = fixtures.createBook("replica-categories").getId();
+        replicate();
+        // written past Hibernate, so no soft lock keeps the stale collection out of the cache
+        new JdbcTemplate(primaryDataSource).update("INSERT INTO books_categories "
+                + "(book_id, category_id) VALUES (?, ?)", bookId, category.getId());
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        assertEquals(0, (int) readOnlyTransaction.execute(status -> categoryCount(bookId)));
+        assertEquals(1, (int) transactionTemplate.execute(status -> categoryCount(bookId)));
+    }
+
+    @Test
+    void readOnlyLoad_entityManagerOpenInView_restoresCacheModeAfterCompletion() {
+        Long bookId = fixtures.createBook("replica-open-in-view").getId();
+        replicate();
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory,
+                new EntityManagerHolder(entityManager));
+        try {
+            TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+            readOnlyTransaction.setReadOnly(true);
+            readOnlyTransaction.executeWithoutResult(status -> categoryCount(bookId));
+
+            assertEquals(CacheMode.NORMAL, entityManager.unwrap(Session.class).getCacheMode());
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+    }
+
+    private int categoryCount(Long bookId) {
+        return bookRepository.findById(bookId).orElseThrow().getCategories().size();
+    }
+
+    // stands in for replication, the replica catches up with the primary only when asked to
+    private void replicate() {
+        new JdbcTemplate(primaryDataSource).execute("SCRIPT TO '" + SNAPSHOT + "'");
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("DROP ALL OBJECTS");
+        replica.execute("RUNSCRIPT FROM '" + SNAPSHOT + "'");
+    }
+}
@@ -0,0 +1,168 @@
+package bookstore.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import bookstore.TestFixtures;
+import bookstore.dto.order.UpdateOrderRequestDto;
+import bookstore.exception.InsufficientStockException;
+import bookstore.exception.StockContentionException;
+import bookstore.model.Order;
+import bookstore.model.User;
+import bookstore.service.OrderService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+class InventoryTests {
+    private static final int BUYERS = 24;
+    private static final int STOCK = 10;
+    private static final String COUNT_RESERVED = "SELECT COALESCE(SUM(quantity), 0) "
+            + "FROM stock_reservations WHERE book_id = ?";
+
+    @Autowired
+    private Inventory inventory;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void reserve_concurrentBuyersOfOneBook_neverOversells() throws Exception {
+        Long bookId = fixtures.createBook("hot-title").getId();
+        inventory.setAvailable(bookId, STOCK);
+        User user = fixtures.createUser("hot-title@example.com");
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            orderIds.add(fixtures.createOrder(user).getId());
+        }
+
+        List<Future<?>> checkouts = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+        try {
+            for (Long orderId : orderIds) {
+                checkouts.add(executor.submit(() -> reserve(orderId, Map.of(bookId, 1))));
+            }
+            int sold = 0;
+            for (Future<?> checkout : checkouts) {
+                try {
+                    checkout.get();
+                    sold++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(InsufficientStockException.class, e.getCause());
+                }
+            }
+            assertEquals(STOCK, sold);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(0, inventory.getAvailable(bookId));
+        assertEquals(STOCK, countReserved(bookId));
+    }
+
+    @Test
+    void reserve_concurrentCartsSharingBooks_neverDeadlock() throws Exception {
+        Long firstBookId = fixtures.createBook("shared-first").getId();
+        Long secondBookId = fixtures.createBook("shared-second").getId();
+        inventory.setAvailable(firstBookId, BUYERS);
+        inventory.setAvailable(secondBookId, BUYERS);
+        User user = fixtures.createUser("shared-titles@example.com");
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            orderIds.add(fixtures.createOrder(user).getId());
+        }
+
+        List<Future<?>> checkouts = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+        try {
+            for (Long orderId : orderIds) {
+                checkouts.add(executor.submit(() -> reserve(orderId,
+                        Map.of(firstBookId, 1, secondBookId, 1))));
+            }
+            for (Future<?> checkout : checkouts) {
+                checkout.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(0, inventory.getAvailable(firstBookId));
+        assertEquals(0, inventory.getAvailable(secondBookId));
+    }
+
+    @Test
+    void reserve_untrackedBook_reservesNothingUntilStockIsSet() {
+        Long bookId = fixtures.createBook("untracked-title").getId();
+        User user = fixtures.createUser("untracked-title@example.com");
+        Order first = fixtures.createOrder(user);
+        final Order second = fixtures.createOrder(user);
+
+        reserve(first.getId(), Map.of(bookId, 3));
+        assertNull(inventory.getAvailable(bookId));
+        assertEquals(0, countReserved(bookId));
+
+        inventory.setAvailable(bookId, 2);
+        assertThrows(InsufficientStockException.class, () -> reserve(second.getId(),
+                Map.of(bookId, 3)));
+    }
+
+    @Test
+    void reserve_stockSpreadOverStripes_takesFromSeveralStripes() {
+        Long bookId = fixtures.createBook("spread-title").getId();
+        inventory.setAvailable(bookId, 8);
+        Order order = fixtures.createOrder(fixtures.createUser("spread-title@example.com"));
+
+        transactionTemplate.executeWithoutResult(
+                status -> inventory.reserve(order.getId(), Map.of(bookId, 5)));
+
+        assertEquals(3, inventory.getAvailable(bookId));
+        assertEquals(5, countReserved(bookId));
+    }
+
+    @Test
+    void updateOrder_delivered_keepsStockTaken() {
+        Long bookId = fixtures.createBook("delivered-title").getId();
+        inventory.setAvailable(bookId, 3);
+        Order order = fixtures.createOrder(fixtures.createUser("delivered-title@example.com"));
+        transactionTemplate.executeWithoutResult(
+                status -> inventory.reserve(order.getId(), Map.of(bookId, 2)));
+
+        orderService.updateOrder(order.getId(), new UpdateOrderRequestDto(Order.Status.DELIVERED));
+
+        assertEquals(1, inventory.getAvailable(bookId));
+        assertEquals(0, countReserved(bookId));
+    }
+
+    private void reserve(Long orderId, Map<Long, Integer> quantities) {
+        while (true) {
+            try {
+                transactionTemplate.executeWithoutResult(
+                        status -> inventory.reserve(orderId, quantities));
+                return;
+            } catch (StockContentionException e) {
+                // retried like a client would on the 409 it maps to
+            }
+        }
+    }
+
+    private int countReserved(Long bookId) {
+        return jdbcTemplate.queryForObject(COUNT_RESERVED, Integer.class, bookId);
+    }
+}
@@ -0,0 +1,61 @@
+package bookstore.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import bookstore.repository.BookRepository;
+import bookstore.service.BookService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+@SpringBootTest
+class JdbcRequestMetricsFilterTests {
+    @Autowired
+    private JdbcRequestMetricsFilter filter;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void doFilter_recordsQueriesOfRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/metrics-test/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                "/metrics-test/{id}");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            bookRepository.count();
+            bookRepository.count();
+        });
+        bookRepository.count();
+
+        DistributionSummary queries = meterRegistry.get("http.server.requests.jdbc.queries")
+                .tag("uri", "/metrics-test/{id}")
+                .summary();
+        assertEquals(1, queries.count());
+        assertEquals(2, queries.totalAmount());
+        assertEquals(1, meterRegistry.get("http.server.requests.jdbc.time")
+                .tag("uri", "/metrics-test/{id}")
+                .timer().count());
+    }
+
+    @Test
+    void serviceMethodsAndPoolAreInstrumented() {
+        bookService.findAll(PageRequest.of(0, 5));
+
+        Timer findAll = meterRegistry.get("service").tag("method", "findAll").timer();
+        assertEquals(1, findAll.count());
+        assertNotNull(meterRegistry.get("jdbc.query").timer());
+        assertNotNull(meterRegistry.get("hikaricp.connections.active").gauge());
+    }
+}
@@ -0,0 +1,157 @@
+package bookstore.order;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import bookstore.config.CacheConfig;
+import bookstore.dto.order.CreateOrderRequestDto;
+import bookstore.dto.order.OrderDto;
+import bookstore.exception.CheckoutInProgressException;
+import bookstore.exception.IdempotencyKeyReusedException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+@SpringBootTest
+class IdempotentCheckoutsTests {
+    private static final CreateOrderRequestDto REQUEST = new CreateOrderRequestDto("Kyiv");
+
+    @Autowired
+    private IdempotentCheckouts idempotentCheckouts;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void createOrder_retryWithSameKey_returnsStoredOrder() {
+        AtomicInteger checkouts = new AtomicInteger();
+        Supplier<OrderDto> checkout = () -> createOrder(checkouts.incrementAndGet());
+
+        OrderDto first = idempotentCheckouts.createOrder(1L, "retry", REQUEST, checkout);
+        OrderDto retry = idempotentCheckouts.createOrder(1L, "retry", REQUEST, checkout);
+        OrderDto otherUser = idempotentCheckouts.createOrder(2L, "retry", REQUEST, checkout);
+
+        assertSame(first, retry);
+        assertEquals(2L, otherUser.id());
+        assertEquals(2, checkouts.get());
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotentCheckouts
+                .createOrder(1L, "retry", new CreateOrderRequestDto("Lviv"), checkout));
+    }
+
+    @Test
+    void createOrder_concurrentRetry_waitsForFirstAttempt() throws Exception {
+        AtomicInteger checkouts = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<OrderDto> first = CompletableFuture.supplyAsync(() ->
+                idempotentCheckouts.createOrder(1L, "concurrent", REQUEST, () -> {
+                    started.countDown();
+                    await(release);
+                    return createOrder(checkouts.incrementAndGet());
+                }));
+        started.await(5, TimeUnit.SECONDS);
+
+        CompletableFuture<OrderDto> retry = CompletableFuture.supplyAsync(() ->
+                idempotentCheckouts.createOrder(1L, "concurrent", REQUEST,
+                        () -> createOrder(checkouts.incrementAndGet())));
+        release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), retry.get(5, TimeUnit.SECONDS));
+        assertEquals(1, checkouts.get());
+    }
+
+    @Test
+    void createOrder_storedCheckoutsEvicted_retryStillWaitsForFirstAttempt() throws Exception {
+        AtomicInteger checkouts = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        final CompletableFuture<OrderDto> first = CompletableFuture.supplyAsync(() ->
+                idempotentCheckouts.createOrder(1L, "evicted", REQUEST, () -> {
+                    started.countDown();
+                    await(release);
+                    return createOrder(checkouts.incrementAndGet());
+                }));
+        started.await(5, TimeUnit.SECONDS);
+        cacheManager.getCache(CacheConfig.CHECKOUTS_CACHE).clear();
+
+        CompletableFuture<OrderDto> retry = CompletableFuture.supplyAsync(() ->
+                idempotentCheckouts.createOrder(1L, "evicted", REQUEST,
+                        () -> createOrder(checkouts.incrementAndGet())));
+        release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), retry.get(5, TimeUnit.SECONDS));
+        assertEquals(1, checkouts.get());
+    }
+
+    @Test
+    void createOrder_firstAttemptOutlastsWait_throwsException() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<OrderDto> first = CompletableFuture.supplyAsync(() ->
+                idempotentCheckouts.createOrder(1L, "slow", REQUEST, () -> {
+                    started.countDown();
+                    await(release);
+                    return createOrder(9);
+                }));
+        started.await(5, TimeUnit.SECONDS);
+
+        try {
+            assertThrows(CheckoutInProgressException.class, () -> idempotentCheckouts
+                    .createOrder(1L, "slow", REQUEST, () -> createOrder(10)));
+        } finally {
+            release.countDown();
+        }
+
+        assertEquals(9L, first.get(5, TimeUnit.SECONDS).id());
+        assertEquals(9L, idempotentCheckouts.createOrder(1L, "slow", REQUEST,
+                () -> createOrder(10)).id());
+    }
+
+    @Test
+    void createOrder_failedAttempt_isNotStored() {
+        assertThrows(IllegalStateException.class, () -> idempotentCheckouts.createOrder(1L,
+                "failed", REQUEST, () -> {
+                    throw new IllegalStateException();
+                }));
+
+        OrderDto retry = idempotentCheckouts.createOrder(1L, "failed", REQUEST,
+                () -> createOrder(7));
+
+        assertEquals(7L, retry.id());
+    }
+
+    @Test
+    void createOrder_attemptFailedWithError_isNotStored() {
+        assertThrows(StackOverflowError.class, () -> idempotentCheckouts.createOrder(1L,
+                "error", REQUEST, () -> {
+                    throw new StackOverflowError();
+                }));
+
+        OrderDto retry = idempotentCheckouts.createOrder(1L, "error", REQUEST,
+                () -> createOrder(8));
+
+        assertEquals(8L, retry.id());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static OrderDto createOrder(long id) {
+        return new OrderDto(id, 1L, Set.of(), LocalDateTime.now(), BigDecimal.TEN, "PENDING",
+                null, null, null);
+    }
+}
@@ -0,0 +1,156 @@
+package bookstore.order;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+
+import bookstore.TestFixtures;
+import bookstore.dto.order.BulkUpdateOrderStatusRequestDto;
+import bookstore.dto.order.OrderDto;
+import bookstore.dto.order.OrderStatusUpdateResultDto;
+import bookstore.dto.order.OrderStatusUpdateResultDto.Outcome;
+import bookstore.dto.order.UpdateOrderRequestDto;
+import bookstore.exception.InvalidOrderStatusTransitionException;
+import bookstore.inventory.Inventory;
+import bookstore.model.Order;
+import bookstore.model.User;
+import bookstore.repository.OrderRepository;
+import bookstore.service.OrderService;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(properties = "orders.status-update.batch-size=2")
+class OrderStatusTransitionsTests {
+    private static final long MISSING_ORDER_ID = Long.MAX_VALUE;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private TestFixtures fixtures;
+    @SpyBean
+    private Inventory inventory;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void updateOrders_mixedOrders_reportsOutcomePerOrder() {
+        User user = fixtures.createUser("bulk-status@example.com");
+        Long pendingId = fixtures.createOrder(user, Order.Status.PENDING).getId();
+        Long deliveredId = fixtures.createOrder(user, Order.Status.DELIVERED).getId();
+        Long cancelledId = fixtures.createOrder(user, Order.Status.CANCELLED).getId();
+        Long anotherPendingId = fixtures.createOrder(user, Order.Status.PENDING).getId();
+
+        List<OrderStatusUpdateResultDto> results = orderService.updateOrders(
+                new BulkUpdateOrderStatusRequestDto(List.of(pendingId, deliveredId, cancelledId,
+                        MISSING_ORDER_ID, anotherPendingId, pendingId), Order.Status.DELIVERED));
+
+        assertEquals(List.of(
+                new OrderStatusUpdateResultDto(pendingId, "DELIVERED", Outcome.UPDATED),
+                new OrderStatusUpdateResultDto(deliveredId, "DELIVERED", Outcome.UNCHANGED),
+                new OrderStatusUpdateResultDto(cancelledId, "CANCELLED",
+                        Outcome.INVALID_TRANSITION),
+                new OrderStatusUpdateResultDto(MISSING_ORDER_ID, null, Outcome.NOT_FOUND),
+                new OrderStatusUpdateResultDto(anotherPendingId, "DELIVERED", Outcome.UPDATED)),
+                results);
+        Order delivered = orderRepository.findById(anotherPendingId).orElseThrow();
+        assertEquals(Order.Status.DELIVERED, delivered.getStatus());
+        assertNotNull(delivered.getDeliveredAt());
+        assertEquals(Order.Status.CANCELLED,
+                orderRepository.findById(cancelledId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void updateOrders_cancelled_releasesReservedStock() {
+        Long bookId = fixtures.createBook("bulk-cancel-title").getId();
+        inventory.setAvailable(bookId, 5);
+        User user = fixtures.createUser("bulk-cancel@example.com");
+        Long firstId = fixtures.createOrder(user, Order.Status.PENDING).getId();
+        Long secondId = fixtures.createOrder(user, Order.Status.PENDING).getId();
+        Long thirdId = fixtures.createOrder(user, Order.Status.PENDING).getId();
+        transactionTemplate.executeWithoutResult(status -> {
+            inventory.reserve(firstId, Map.of(bookId, 1));
+            inventory.reserve(secondId, Map.of(bookId, 2));
+            inventory.reserve(thirdId, Map.of(bookId, 1));
+        });
+
+        orderService.updateOrders(new BulkUpdateOrderStatusRequestDto(
+                List.of(firstId, secondId, thirdId), Order.Status.CANCELLED));
+
+        assertEquals(5, inventory.getAvailable(bookId));
+        assertNotNull(orderRepository.findById(secondId).orElseThrow().getCancelledAt());
+    }
+
+    @Test
+    void updateOrders_failingBatch_reportsItsOrdersAsFailed() {
+        User user = fixtures.createUser("bulk-failure@example.com");
+        Long firstId = fixtures.createOrder(user, Order.Status.PENDING).getId();
+        Long secondId = fixtures.createOrder(user, Order.Status.PENDING).getId();
+        final Long failingId = fixtures.createOrder(user, Order.Status.PENDING).getId();
+        doThrow(new DataAccessResourceFailureException("Connection lost"))
+                .when(inventory).confirm(argThat(orderIds -> orderIds.contains(failingId)));
+
+        List<OrderStatusUpdateResultDto> results = orderService.updateOrders(
+                new BulkUpdateOrderStatusRequestDto(List.of(firstId, secondId, failingId),
+                        Order.Status.DELIVERED));
+
+        assertEquals(List.of(
+                new OrderStatusUpdateResultDto(firstId, "DELIVERED", Outcome.UPDATED),
+                new OrderStatusUpdateResultDto(secondId, "DELIVERED", Outcome.UPDATED),
+                new OrderStatusUpdateResultDto(failingId, null, Outcome.FAILED)),
+                results);
+        assertEquals(Order.Status.PENDING,
+                orderRepository.findById(failingId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void updateOrder_validTransitions_recordsTimestamps() {
+        Long orderId = fixtures.createOrder(fixtures.createUser("single-status@example.com"),
+                Order.Status.PENDING).getId();
+
+        orderService.updateOrder(orderId, new UpdateOrderRequestDto(Order.Status.DELIVERED));
+        OrderDto completed = orderService.updateOrder(orderId,
+                new UpdateOrderRequestDto(Order.Status.COMPLETED));
+
+        assertEquals("COMPLETED", completed.status());
+        assertNotNull(completed.deliveredAt());
+        assertNotNull(completed.completedAt());
+        assertNull(completed.cancelledAt());
+    }
+
+    @Test
+    void updateOrder_failingUpdate_throwsItsCause() {
+        final Long orderId = fixtures.createOrder(fixtures.createUser("single-failure@example.com"),
+                Order.Status.PENDING).getId();
+        doThrow(new DataAccessResourceFailureException("Connection lost"))
+                .when(inventory).confirm(List.of(orderId));
+
+        UpdateOrderRequestDto deliver = new UpdateOrderRequestDto(Order.Status.DELIVERED);
+        assertThrows(DataAccessResourceFailureException.class, () ->
+                orderService.updateOrder(orderId, deliver));
+        assertEquals(Order.Status.PENDING,
+                orderRepository.findById(orderId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void updateOrder_fromTerminalStatus_throwsException() {
+        Long orderId = fixtures.createOrder(fixtures.createUser("terminal-status@example.com"),
+                Order.Status.COMPLETED).getId();
+
+        UpdateOrderRequestDto cancel = new UpdateOrderRequestDto(Order.Status.CANCELLED);
+        assertThrows(InvalidOrderStatusTransitionException.class, () ->
+                orderService.updateOrder(orderId, cancel));
+        assertEquals(Order.Status.COMPLETED,
+                orderRepository.findById(orderId).orElseThrow().getStatus());
+    }
+}
@@ -0,0 +1,174 @@
+package bookstore.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(properties = {
+        "outbox.poll-interval=PT1H",
+        "outbox.retry.max-attempts=2"})
+class OutboxDispatcherTests {
+    private static final long TIMEOUT_MILLIS = 5000;
+    private static final String COUNT_EVENTS =
+            "SELECT COUNT(*) FROM outbox_events WHERE aggregate_id = ?";
+    private static final String SELECT_STATUS = "SELECT status FROM outbox_events "
+            + "WHERE aggregate_id = ? AND consumer = '" + RecordingConsumer.NAME + "'";
+    private static final String SELECT_ATTEMPTS = "SELECT attempts FROM outbox_events "
+            + "WHERE aggregate_id = ? AND consumer = '" + RecordingConsumer.NAME + "'";
+    private static final String INSERT_REMOTE_EVENT = "INSERT INTO outbox_events (consumer, "
+            + "event_type, aggregate_id, payload, status, attempts, next_attempt_at, created_at) "
+            + "VALUES ('remote', 'ORDER_CREATED', ?, '{}', 'PENDING', 0, ?, ?)";
+    private static final String SELECT_REMOTE_NEXT_ATTEMPT = "SELECT next_attempt_at "
+            + "FROM outbox_events WHERE aggregate_id = ? AND consumer = 'remote'";
+    private static final String MAKE_DUE = "UPDATE outbox_events SET next_attempt_at = ? "
+            + "WHERE aggregate_id = ?";
+
+    @Autowired
+    private Outbox outbox;
+    @Autowired
+    private OutboxDispatcher dispatcher;
+    @Autowired
+    private RecordingConsumer consumer;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void dispatch_committedEvent_deliversToEveryConsumerAndDeletesIt() {
+        publish(1001L);
+        assertEquals(2, countEvents(1001L));
+
+        dispatcher.dispatch();
+
+        awaitUntil(() -> consumer.delivered.contains(1001L) && countEvents(1001L) == 0);
+    }
+
+    @Test
+    void publish_rolledBack_writesNoEvents() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.publish(OutboxEventType.ORDER_CREATED, 1002L, Map.of("id", 1002L));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, countEvents(1002L));
+    }
+
+    @Test
+    void dispatch_consumerFailsOnce_retriesAfterBackoff() {
+        consumer.failuresLeft.put(1003L, 1);
+        publish(1003L);
+
+        dispatcher.dispatch();
+        awaitUntil(() -> attempts(1003L) == 1);
+        dispatcher.dispatch();
+
+        assertFalse(consumer.delivered.contains(1003L));
+        jdbcTemplate.update(MAKE_DUE, LocalDateTime.now().minusSeconds(1), 1003L);
+        dispatcher.dispatch();
+        awaitUntil(() -> consumer.delivered.contains(1003L) && countEvents(1003L) == 0);
+    }
+
+    @Test
+    void dispatch_consumerKeepsFailing_marksEventFailed() {
+        consumer.failuresLeft.put(1004L, Integer.MAX_VALUE);
+        publish(1004L);
+
+        dispatcher.dispatch();
+        awaitUntil(() -> attempts(1004L) == 1);
+        jdbcTemplate.update(MAKE_DUE, LocalDateTime.now().minusSeconds(1), 1004L);
+        dispatcher.dispatch();
+        awaitUntil(() -> "FAILED".equals(status(1004L)));
+
+        assertEquals(2, attempts(1004L));
+        assertFalse(consumer.delivered.contains(1004L));
+    }
+
+    @Test
+    void dispatch_eventOfConsumerNotRunningHere_leavesItUnclaimed() {
+        LocalDateTime due = LocalDateTime.now().minusMinutes(1).withNano(0);
+        jdbcTemplate.update(INSERT_REMOTE_EVENT, 1005L, due, due);
+
+        dispatcher.dispatch();
+
+        // a claim would have pushed the event out by the lease
+        assertEquals(due, jdbcTemplate.queryForObject(SELECT_REMOTE_NEXT_ATTEMPT,
+                LocalDateTime.class, 1005L));
+    }
+
+    private void publish(Long aggregateId) {
+        transactionTemplate.executeWithoutResult(status -> outbox.publish(
+                OutboxEventType.ORDER_CREATED, aggregateId, Map.of("id", aggregateId)));
+    }
+
+    private int countEvents(Long aggregateId) {
+        return jdbcTemplate.queryForObject(COUNT_EVENTS, Integer.class, aggregateId);
+    }
+
+    private int attempts(Long aggregateId) {
+        return jdbcTemplate.queryForObject(SELECT_ATTEMPTS, Integer.class, aggregateId);
+    }
+
+    private String status(Long aggregateId) {
+        return jdbcTemplate.queryForObject(SELECT_STATUS, String.class, aggregateId);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for outbox");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class RecordingConsumerConfig {
+        @Bean
+        RecordingConsumer recordingConsumer() {
+            return new RecordingConsumer();
+        }
+    }
+
+    static class RecordingConsumer implements OutboxConsumer {
+        static final String NAME = "recording";
+
+        private final Set<Long> delivered = ConcurrentHashMap.newKeySet();
+        private final Map<Long, Integer> failuresLeft = new ConcurrentHashMap<>();
+
+        @Override
+        public String name() {
+            return NAME;
+        }
+
+        @Override
+        public boolean supports(OutboxEventType type) {
+            return type == OutboxEventType.ORDER_CREATED;
+        }
+
+        @Override
+        public void accept(OutboxEvent event) {
+            if (failuresLeft.merge(event.aggregateId(), -1, Integer::sum) >= 0) {
+                throw new IllegalStateException("Downstream unavailable");
+            }
+            delivered.add(event.aggregateId());
+        }
+    }
+}
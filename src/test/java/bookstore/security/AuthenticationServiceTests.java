@@ -0,0 +1,65 @@
+package bookstore.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import bookstore.dto.user.UserLoginRequestDto;
+import bookstore.model.Role;
+import bookstore.model.User;
+import bookstore.repository.RoleRepository;
+import bookstore.repository.UserRepository;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@SpringBootTest
+class AuthenticationServiceTests {
+    private static final String PASSWORD = "password";
+
+    @Autowired
+    private AuthenticationService authenticationService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void authenticate_passwordHashedWithOtherCost_rehashesWithConfiguredCost() {
+        String email = "rehash@example.com";
+        createUser(email, new BCryptPasswordEncoder(4).encode(PASSWORD));
+
+        assertNotNull(authenticationService.authenticate(
+                new UserLoginRequestDto(email, PASSWORD)).token());
+
+        String rehashed = userRepository.findByEmail(email).orElseThrow().getPassword();
+        assertTrue(rehashed.startsWith("$2a$10$"), rehashed);
+        assertTrue(passwordEncoder.matches(PASSWORD, rehashed));
+    }
+
+    @Test
+    void authenticate_passwordHashedWithConfiguredCost_keepsHash() {
+        String email = "no-rehash@example.com";
+        String encoded = passwordEncoder.encode(PASSWORD);
+        createUser(email, encoded);
+
+        authenticationService.authenticate(new UserLoginRequestDto(email, PASSWORD));
+
+        assertEquals(encoded, userRepository.findByEmail(email).orElseThrow().getPassword());
+    }
+
+    private void createUser(String email, String encodedPassword) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword(encodedPassword);
+        user.setFirstName("First");
+        user.setLastName("Last");
+        user.setRoles(Set.of(roleRepository.findByName(Role.RoleName.ROLE_USER)));
+        userRepository.save(user);
+    }
+}
@@ -0,0 +1,107 @@
+package bookstore.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import bookstore.config.CacheConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class JwtUtilTests {
+    private static final String SECRET = "ancientMystery129876378576158369";
+    private static final String OTHER_SECRET = "anotherMystery129876378576158369";
+    private static final String USERNAME = "jwt@example.com";
+    private static final long EXPIRATION = 7200000;
+
+    private final Cache<Object, Object> verifiedTokens = Caffeine.newBuilder()
+            .expireAfter(new VerifiedTokenExpiry())
+            .build();
+    private final CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+
+    @BeforeEach
+    void registerTokensCache() {
+        cacheManager.registerCustomCache(CacheConfig.TOKENS_CACHE, verifiedTokens);
+    }
+
+    @Test
+    void parseToken_validToken_returnsClaimsVerifiedOnce() {
+        JwtUtil jwtUtil = createJwtUtil(SECRET);
+        String token = jwtUtil.generateToken(USERNAME);
+
+        Claims claims = jwtUtil.parseToken(token);
+
+        assertEquals(USERNAME, claims.getSubject());
+        assertSame(claims, jwtUtil.parseToken(token));
+        assertEquals(1, verifiedTokens.estimatedSize());
+    }
+
+    @Test
+    void parseToken_tamperedToken_throwsException() {
+        JwtUtil jwtUtil = createJwtUtil(SECRET);
+        String token = jwtUtil.generateToken(USERNAME);
+        String tampered = token.substring(0, token.length() - 4)
+                + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+
+        assertThrows(JwtException.class, () -> jwtUtil.parseToken(tampered));
+        assertEquals(0, verifiedTokens.estimatedSize());
+    }
+
+    @Test
+    void parseToken_expiredToken_throwsException() {
+        JwtUtil jwtUtil = createJwtUtil(SECRET);
+        String token = signToken(SECRET, new Date(System.currentTimeMillis() - 1000));
+
+        assertThrows(JwtException.class, () -> jwtUtil.parseToken(token));
+    }
+
+    @Test
+    void parseToken_cachedTokenExpired_isNoLongerServed() throws InterruptedException {
+        JwtUtil jwtUtil = createJwtUtil(SECRET);
+        String token = signToken(SECRET, new Date(System.currentTimeMillis() + 2000));
+        Date expiration = jwtUtil.parseToken(token).getExpiration();
+
+        Thread.sleep(expiration.getTime() - System.currentTimeMillis() + 100);
+
+        verifiedTokens.cleanUp();
+        assertEquals(0, verifiedTokens.estimatedSize());
+        assertThrows(JwtException.class, () -> jwtUtil.parseToken(token));
+    }
+
+    @Test
+    void parseToken_cachedToken_skipsSignatureVerification() {
+        String token = createJwtUtil(SECRET).generateToken(USERNAME);
+        JwtUtil otherKeyJwtUtil = createJwtUtil(OTHER_SECRET);
+        assertThrows(JwtException.class, () -> otherKeyJwtUtil.parseToken(token));
+
+        Claims claims = createJwtUtil(SECRET).parseToken(token);
+
+        // verifying with the other key would fail, so the claims can only come from the cache
+        assertSame(claims, otherKeyJwtUtil.parseToken(token));
+    }
+
+    private JwtUtil createJwtUtil(String secret) {
+        JwtUtil jwtUtil = new JwtUtil(secret, true, cacheManager);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", EXPIRATION);
+        return jwtUtil;
+    }
+
+    private String signToken(String secret, Date expiration) {
+        return Jwts.builder()
+                .subject(USERNAME)
+                .issuedAt(new Date())
+                .expiration(expiration)
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
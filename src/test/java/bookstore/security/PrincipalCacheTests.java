@@ -0,0 +1,109 @@
+package bookstore.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import bookstore.TestFixtures;
+import bookstore.exception.EntityNotFoundException;
+import bookstore.model.Role;
+import bookstore.model.User;
+import bookstore.repository.RoleRepository;
+import bookstore.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+class PrincipalCacheTests {
+    @Autowired
+    private PrincipalCache principalCache;
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_cachedPrincipal_skipsDatabase() {
+        String email = "principal-hit@example.com";
+        fixtures.createUser(email);
+        get(email, beforeNow());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        UserDetails principal = get(email, beforeNow());
+
+        assertEquals(email, principal.getUsername());
+        assertEquals(1, loads.get());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void get_tokenIssuedAfterLoad_reloadsPrincipal() {
+        String email = "principal-fresh-token@example.com";
+        fixtures.createUser(email);
+        get(email, beforeNow());
+
+        get(email, new Date(System.currentTimeMillis() + 1000));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void deleteById_user_evictsPrincipal() {
+        String email = "principal-deleted@example.com";
+        User user = fixtures.createUserWithCart(email);
+        get(email, beforeNow());
+
+        userRepository.deleteById(user.getId());
+
+        assertThrows(EntityNotFoundException.class, () -> get(email, beforeNow()));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void roleChange_evictsPrincipalWithItsRoles() {
+        String email = "principal-promoted@example.com";
+        User user = fixtures.createUser(email, Role.RoleName.ROLE_USER);
+        get(email, beforeNow());
+
+        transactionTemplate.executeWithoutResult(status -> userRepository
+                .findById(user.getId()).orElseThrow()
+                .getRoles().add(roleRepository.findByName(Role.RoleName.ROLE_ADMIN)));
+
+        UserDetails principal = get(email, beforeNow());
+        assertEquals(2, loads.get());
+        assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"), principal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet()));
+    }
+
+    private UserDetails get(String email, Date issuedAt) {
+        return principalCache.get(email, issuedAt, username -> {
+            loads.incrementAndGet();
+            return userDetailsService.loadUserByUsername(username);
+        });
+    }
+
+    private Date beforeNow() {
+        return new Date(System.currentTimeMillis() - 60_000);
+    }
+}
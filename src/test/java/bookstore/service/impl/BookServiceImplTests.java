@@ -0,0 +1,272 @@
+package bookstore.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import bookstore.TestFixtures;
+import bookstore.dto.book.BookCursorPageDto;
+import bookstore.dto.book.BookDto;
+import bookstore.dto.book.BookImportErrorDto;
+import bookstore.dto.book.BookImportProgressDto;
+import bookstore.dto.book.CreateBookRequestDto;
+import bookstore.exception.BookImportException;
+import bookstore.exception.EntityNotFoundException;
+import bookstore.exception.InvalidCursorException;
+import bookstore.importer.BookImportFormat;
+import bookstore.importer.BookImportListener;
+import bookstore.model.Book;
+import bookstore.model.Category;
+import bookstore.repository.BookRepository;
+import bookstore.search.BookSearchIndex;
+import bookstore.service.BookService;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+@SpringBootTest
+class BookServiceImplTests {
+    private static final int REINDEXES_TO_COMPACT = 1100;
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void findAllByCursor_walksWholeCatalogInSortOrder() {
+        for (int i = 0; i < 25; i++) {
+            fixtures.createBook("cursor-" + i, BigDecimal.valueOf(i % 4));
+        }
+        Sort sort = Sort.by(Sort.Order.desc("price"), Sort.Order.asc("title"));
+        List<Long> expected = bookRepository.findAll(sort.and(Sort.by("id"))).stream()
+                .map(Book::getId)
+                .toList();
+
+        List<Long> actual = new ArrayList<>();
+        String cursor = "";
+        do {
+            BookCursorPageDto page = bookService.findAllByCursor(cursor,
+                    PageRequest.of(0, 7, sort));
+            page.content().stream().map(BookDto::id).forEach(actual::add);
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void findAllByCursor_unknownSortProperty_throwsException() {
+        Pageable pageable = PageRequest.of(0, 7, Sort.by("description"));
+        assertThrows(InvalidCursorException.class,
+                () -> bookService.findAllByCursor("", pageable));
+    }
+
+    @Test
+    void findAll_queryCountDoesNotDependOnPageSize() {
+        Set<Category> categories = Set.of(fixtures.createCategory("page-fiction"),
+                fixtures.createCategory("page-poetry"));
+        for (int i = 0; i < 20; i++) {
+            fixtures.createBook("page-" + i, BigDecimal.ONE, categories);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+
+        statistics.clear();
+        assertEquals(2, bookService.findAll(PageRequest.of(0, 2)).size());
+        final long smallPageStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        assertEquals(20, bookService.findAll(PageRequest.of(0, 20)).size());
+        assertEquals(smallPageStatements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void exportAll_streamsBooksWithCategoriesInOneQuery() {
+        Set<Category> categories = Set.of(fixtures.createCategory("export-fiction"),
+                fixtures.createCategory("export-poetry"));
+        for (int i = 0; i < 5; i++) {
+            fixtures.createBook("export-" + i, BigDecimal.ONE, i % 2 == 0 ? categories : Set.of());
+        }
+        final List<BookDto> expected = bookService.findAll(PageRequest.of(0, 1000, Sort.by("id")));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+
+        statistics.clear();
+        List<BookDto> exported = new ArrayList<>();
+        bookService.exportAll(exported::add);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(expected.stream().map(BookDto::id).toList(),
+                exported.stream().map(BookDto::id).toList());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(Set.copyOf(expected.get(i).categoryIds()),
+                    Set.copyOf(exported.get(i).categoryIds()));
+        }
+    }
+
+    @Test
+    void getById_repeatedRead_returnsCachedBook() {
+        Long id = fixtures.createBook("cache-hit", BigDecimal.ONE,
+                Set.of(fixtures.createCategory("cache-hit-fiction"))).getId();
+        BookDto first = bookService.getById(id);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        BookDto cached = bookService.getById(id);
+
+        assertSame(first, cached);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertThrows(UnsupportedOperationException.class, () -> cached.categoryIds().add(1L));
+    }
+
+    @Test
+    void updateById_cachedBook_replacesCacheEntry() {
+        Long id = fixtures.createBook("cache-put").getId();
+        final BookDto before = bookService.getById(id);
+
+        bookService.updateById(id, new CreateBookRequestDto("Renamed", "Author", "cache-put",
+                BigDecimal.ONE, null, null, Set.of()));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+        BookDto after = bookService.getById(id);
+
+        assertEquals("Renamed", after.title());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals("Title cache-put", before.title());
+    }
+
+    @Test
+    void deleteById_cachedBook_evictsCacheEntry() {
+        Long id = fixtures.createBook("cache-evict").getId();
+        bookService.getById(id);
+
+        bookService.deleteById(id);
+
+        assertThrows(EntityNotFoundException.class, () -> bookService.getById(id));
+        assertTrue(bookRepository.findById(id).isEmpty());
+    }
+
+    @Test
+    void search_ranksPrefixAndMultiWordMatches() {
+        BookDto chronicles = bookService.save(new CreateBookRequestDto("Zanzibar Chronicles",
+                "Quentin Zorbowski", "search-111-1", BigDecimal.ONE, null, null, Set.of()));
+        BookDto travels = bookService.save(new CreateBookRequestDto("Travels",
+                "Ann Other", "search-111-2", BigDecimal.ONE,
+                "Notes from the zanzibar coast", null, Set.of()));
+
+        assertEquals(List.of(chronicles.id(), travels.id()), searchIds("zanzi"));
+        assertEquals(List.of(chronicles.id()), searchIds("chronicles zorbow"));
+        assertEquals(List.of(travels.id()), searchIds("search1112"));
+
+        bookService.deleteById(chronicles.id());
+        assertEquals(List.of(travels.id()), searchIds("zanzibar"));
+    }
+
+    @Test
+    void search_bookReindexedPastCompaction_isFoundOnce() {
+        Book book = fixtures.createBook("search-compaction");
+        for (int i = 0; i < REINDEXES_TO_COMPACT; i++) {
+            book.setTitle("Quixotic " + i);
+            bookSearchIndex.index(book);
+        }
+
+        assertEquals(List.of(book.getId()), bookSearchIndex.search("quixotic", 10));
+        assertEquals(List.of(book.getId()),
+                bookSearchIndex.search("quixotic " + (REINDEXES_TO_COMPACT - 1), 10));
+        assertTrue(bookSearchIndex.search("quixotic 0", 10).isEmpty());
+    }
+
+    @Test
+    void importBooks_csv_upsertsByIsbnAndReportsRowErrors() {
+        Category category = fixtures.createCategory("import-fiction");
+        final Book existing = fixtures.createBook("import-1", BigDecimal.ONE);
+        String csv = "\uFEFFtitle,author,isbn,price,description,coverImage,categoryIds\r\n"
+                + "Updated,Author,import-1,5,\"Quoted, \"\"with\"\" comma\",,"
+                + category.getId() + "\r\n"
+                + "New,Author,import-2,7,,,\n"
+                + ",Author,import-3,7,,,\n"
+                + "Unknown,Author,import-4,7,,,-1\n"
+                + "Broken,Author,import-5,seven,,,\n";
+        List<BookImportErrorDto> errors = new ArrayList<>();
+
+        BookImportProgressDto progress = importBooks(csv, BookImportFormat.CSV, errors);
+
+        assertEquals(new BookImportProgressDto(5, 2, 3, true), progress);
+        assertEquals(List.of(3L, 4L, 5L), errors.stream().map(BookImportErrorDto::row).toList());
+        assertEquals("title must not be blank", errors.get(0).message());
+        BookDto updated = bookService.getById(existing.getId());
+        assertEquals("Updated", updated.title());
+        assertEquals("Quoted, \"with\" comma", updated.description());
+        assertEquals(List.of(category.getId()), updated.categoryIds());
+        assertEquals(List.of(existing.getId()), searchIds("updated"));
+        assertEquals(1, searchIds("import2").size());
+    }
+
+    @Test
+    void importBooks_ndjson_reportsMalformedLines() {
+        String ndjson = "{\"title\":\"Json\",\"author\":\"A\",\"isbn\":\"import-json-1\","
+                + "\"price\":3}\n"
+                + "\n"
+                + "{not json}\n";
+        List<BookImportErrorDto> errors = new ArrayList<>();
+
+        BookImportProgressDto progress = importBooks(ndjson, BookImportFormat.NDJSON, errors);
+
+        assertEquals(new BookImportProgressDto(2, 1, 1, true), progress);
+        assertEquals(2L, errors.get(0).row());
+        assertNull(errors.get(0).isbn());
+    }
+
+    @Test
+    void importBooks_csvWithoutRequiredColumn_throwsException() {
+        List<BookImportErrorDto> errors = new ArrayList<>();
+        assertThrows(BookImportException.class,
+                () -> importBooks("title,author,price\n", BookImportFormat.CSV, errors));
+    }
+
+    private BookImportProgressDto importBooks(String content, BookImportFormat format,
+                                              List<BookImportErrorDto> errors) {
+        return bookService.importBooks(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format,
+                new BookImportListener() {
+                    @Override
+                    public void onError(BookImportErrorDto error) {
+                        errors.add(error);
+                    }
+
+                    @Override
+                    public void onProgress(BookImportProgressDto progress) {
+                    }
+                });
+    }
+
+    private List<Long> searchIds(String query) {
+        return bookService.search(query, PageRequest.of(0, 10)).stream()
+                .map(BookDto::id)
+                .toList();
+    }
+}
@@ -0,0 +1,259 @@
+package bookstore.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import bookstore.TestFixtures;
+import bookstore.dto.order.CreateOrderRequestDto;
+import bookstore.dto.order.OrderDto;
+import bookstore.dto.order.OrderSearchParametersDto;
+import bookstore.dto.order.OrderSummaryDto;
+import bookstore.exception.EmptyShoppingCartException;
+import bookstore.exception.InsufficientStockException;
+import bookstore.inventory.Inventory;
+import bookstore.model.Book;
+import bookstore.model.Order;
+import bookstore.model.OrderItem;
+import bookstore.model.ShoppingCart;
+import bookstore.model.User;
+import bookstore.repository.OrderRepository;
+import bookstore.repository.ShoppingCartRepository;
+import bookstore.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+class OrderServiceImplTests {
+    private static final int CART_SIZE = 120;
+    private static final long MAX_CHECKOUT_STATEMENTS = 10;
+    private static final LocalDateTime FIRST_ORDER_DATE = LocalDateTime.of(2024, 1, 1, 12, 0);
+    private static final OrderSearchParametersDto NO_FILTERS =
+            new OrderSearchParametersDto(null, null, null);
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private ShoppingCartRepository shoppingCartRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private Inventory inventory;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void createOrder_largeCart_issuesBoundedNumberOfStatements() {
+        User user = transactionTemplate.execute(status -> {
+            User newUser = fixtures.createUser("checkout@example.com");
+            ShoppingCart shoppingCart = fixtures.createShoppingCart(newUser);
+            for (int i = 0; i < CART_SIZE; i++) {
+                Book book = fixtures.createBook("checkout-" + i);
+                inventory.setAvailable(book.getId(), 1);
+                fixtures.createCartItem(shoppingCart, book);
+            }
+            return newUser;
+        });
+        fixtures.authenticate(user);
+        statistics.clear();
+
+        OrderDto order = orderService.createOrder(new CreateOrderRequestDto("Kyiv"));
+        final long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(CART_SIZE, order.orderItems().size());
+        assertEquals(BigDecimal.valueOf(10L * CART_SIZE), order.total());
+        Order savedOrder = orderRepository.findById(order.id()).orElseThrow();
+        assertEquals(CART_SIZE, savedOrder.getItemCount());
+        assertEquals(CART_SIZE, savedOrder.getTotalQuantity());
+        assertTrue(shoppingCartRepository.findWithCartItemsById(user.getId()).orElseThrow()
+                .getCartItems().isEmpty());
+        assertTrue(statements <= MAX_CHECKOUT_STATEMENTS,
+                "Checkout prepared " + statements + " statements for " + CART_SIZE
+                        + " cart items");
+    }
+
+    @Test
+    void createOrder_notEnoughStock_keepsCartAndStock() {
+        Book soldOut = fixtures.createBook("sold-out");
+        final Book inStock = fixtures.createBook("in-stock");
+        inventory.setAvailable(soldOut.getId(), 0);
+        inventory.setAvailable(inStock.getId(), 5);
+        User user = transactionTemplate.execute(status -> {
+            User newUser = fixtures.createUser("sold-out@example.com");
+            ShoppingCart shoppingCart = fixtures.createShoppingCart(newUser);
+            fixtures.createCartItem(shoppingCart, inStock);
+            fixtures.createCartItem(shoppingCart, soldOut);
+            return newUser;
+        });
+        fixtures.authenticate(user);
+
+        assertThrows(InsufficientStockException.class,
+                () -> orderService.createOrder(new CreateOrderRequestDto("Kyiv")));
+
+        assertEquals(5, inventory.getAvailable(inStock.getId()));
+        assertTrue(orderRepository.findByUserId(user.getId()).isEmpty());
+        assertEquals(2, shoppingCartRepository.findWithCartItemsById(user.getId()).orElseThrow()
+                .getCartItems().size());
+    }
+
+    @Test
+    void createOrder_emptyCart_createsNoOrder() {
+        User user = transactionTemplate.execute(status -> {
+            User newUser = fixtures.createUser("empty-cart@example.com");
+            fixtures.createShoppingCart(newUser);
+            return newUser;
+        });
+        fixtures.authenticate(user);
+
+        assertThrows(EmptyShoppingCartException.class,
+                () -> orderService.createOrder(new CreateOrderRequestDto("Kyiv")));
+
+        assertTrue(orderRepository.findByUserId(user.getId()).isEmpty());
+    }
+
+    @Test
+    void getOrders_queryCountDoesNotDependOnItemCount() {
+        User smallBuyer = createUserWithOrders("small-buyer@example.com", 1, 1);
+        final User largeBuyer = createUserWithOrders("large-buyer@example.com", 5, 20);
+
+        fixtures.authenticate(smallBuyer);
+        statistics.clear();
+        assertEquals(1, orderService.getOrders(NO_FILTERS, PAGE).size());
+        final long smallBuyerStatements = statistics.getPrepareStatementCount();
+
+        fixtures.authenticate(largeBuyer);
+        statistics.clear();
+        assertEquals(5, orderService.getOrders(NO_FILTERS, PAGE).size());
+        assertEquals(smallBuyerStatements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getOrders_pagesNewestFirstAndAppliesFilters() {
+        User user = createUserWithOrders("history-buyer@example.com", 5, 2);
+        List<Order> orders = orderRepository.findAll(Sort.by("id")).stream()
+                .filter(order -> order.getUser().getId().equals(user.getId()))
+                .toList();
+        Order delivered = orders.get(1);
+        delivered.setStatus(Order.Status.DELIVERED);
+        orderRepository.save(delivered);
+        fixtures.authenticate(user);
+
+        List<OrderDto> firstPage = orderService.getOrders(NO_FILTERS, PageRequest.of(0, 3));
+        List<OrderDto> secondPage = orderService.getOrders(NO_FILTERS, PageRequest.of(1, 3));
+
+        assertEquals(List.of(orders.get(4).getId(), orders.get(3).getId(),
+                orders.get(2).getId()), firstPage.stream().map(OrderDto::id).toList());
+        assertEquals(List.of(orders.get(1).getId(), orders.get(0).getId()),
+                secondPage.stream().map(OrderDto::id).toList());
+        assertEquals(List.of(delivered.getId()), orderService.getOrders(
+                new OrderSearchParametersDto(Order.Status.DELIVERED, null, null), PAGE)
+                .stream().map(OrderDto::id).toList());
+        assertEquals(List.of(orders.get(2).getId(), orders.get(1).getId()),
+                orderService.getOrders(new OrderSearchParametersDto(null,
+                        FIRST_ORDER_DATE.plusDays(1), FIRST_ORDER_DATE.plusDays(3)), PAGE)
+                        .stream().map(OrderDto::id).toList());
+    }
+
+    @Test
+    void getOrderSummaries_readsOrdersTableOnly() {
+        fixtures.authenticate(createUserWithOrders("summary-buyer@example.com", 3, 20));
+
+        statistics.clear();
+        List<OrderSummaryDto> summaries = orderService.getOrderSummaries(NO_FILTERS,
+                PageRequest.of(0, 2));
+
+        assertEquals(2, summaries.size());
+        assertEquals(20, summaries.get(0).itemCount());
+        assertEquals(20, summaries.get(0).totalQuantity());
+        assertEquals(BigDecimal.valueOf(200), summaries.get(0).total());
+        assertEquals(0, statistics.getCollectionFetchCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void exportOrders_streamsSameOrdersAsGetOrders() {
+        fixtures.authenticate(createUserWithOrders("export-buyer@example.com", 3, 4));
+        Set<OrderDto> exported = new HashSet<>();
+
+        statistics.clear();
+        orderService.exportOrders(exported::add);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(Set.copyOf(orderService.getOrders(NO_FILTERS, PAGE)), exported);
+    }
+
+    @Test
+    void getOrderItemsByOrderId_queryCountDoesNotDependOnItemCount() {
+        Long smallOrderId = getFirstOrderId(
+                createUserWithOrders("small-order@example.com", 1, 1));
+        final Long largeOrderId = getFirstOrderId(
+                createUserWithOrders("large-order@example.com", 1, 50));
+
+        statistics.clear();
+        assertEquals(1, orderService.getOrderItemsByOrderId(smallOrderId).size());
+        final long smallOrderStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        assertEquals(50, orderService.getOrderItemsByOrderId(largeOrderId).size());
+        assertEquals(smallOrderStatements, statistics.getPrepareStatementCount());
+    }
+
+    private Long getFirstOrderId(User user) {
+        return orderRepository.findByUserId(user.getId()).iterator().next().getId();
+    }
+
+    private User createUserWithOrders(String email, int orders, int itemsPerOrder) {
+        return transactionTemplate.execute(status -> {
+            User user = fixtures.createUser(email);
+            for (int i = 0; i < orders; i++) {
+                Order order = new Order();
+                order.setUser(user);
+                order.setStatus(Order.Status.PENDING);
+                order.setTotal(BigDecimal.ZERO);
+                order.setOrderDate(FIRST_ORDER_DATE.plusDays(i));
+                order.setShippingAddress("Kyiv");
+                for (int j = 0; j < itemsPerOrder; j++) {
+                    OrderItem orderItem = new OrderItem();
+                    orderItem.setBook(fixtures.createBook(email + "-" + i + "-" + j));
+                    orderItem.setQuantity(1);
+                    orderItem.setPrice(BigDecimal.TEN);
+                    order.addOrderItem(orderItem);
+                }
+                orderRepository.save(order);
+            }
+            return user;
+        });
+    }
+}
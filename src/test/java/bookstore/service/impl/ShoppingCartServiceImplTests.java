@@ -0,0 +1,138 @@
+package bookstore.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import bookstore.TestFixtures;
+import bookstore.dto.cartitem.CreateRequestCartItemDto;
+import bookstore.dto.shoppingcart.ShoppingCartDto;
+import bookstore.model.ShoppingCart;
+import bookstore.service.ShoppingCartService;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+class ShoppingCartServiceImplTests {
+    private static final int THREADS = 8;
+    private static final int ADDS_PER_THREAD = 10;
+
+    @Autowired
+    private ShoppingCartService shoppingCartService;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void findById_queryCountDoesNotDependOnItemCount() {
+        Long smallCartId = createCartWithItems("small-cart@example.com", 1);
+        final Long largeCartId = createCartWithItems("large-cart@example.com", 50);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+
+        statistics.clear();
+        assertEquals(1, shoppingCartService.findById(smallCartId).cartItems().size());
+        final long smallCartStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        assertEquals(50, shoppingCartService.findById(largeCartId).cartItems().size());
+        assertEquals(smallCartStatements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void addCartItemToCart_concurrentAddsOfSameBook_mergeIntoOneLine() throws Exception {
+        Long cartId = createCartWithItems("concurrent-cart@example.com", 0);
+        final Long bookId = fixtures.createBook("concurrent-cart-book").getId();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < ADDS_PER_THREAD; j++) {
+                    shoppingCartService.addCartItemToCart(cartId,
+                            new CreateRequestCartItemDto(bookId, 1));
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ShoppingCartDto shoppingCart = shoppingCartService.findById(cartId);
+        assertEquals(1, shoppingCart.cartItems().size());
+        assertEquals(THREADS * ADDS_PER_THREAD,
+                shoppingCart.cartItems().iterator().next().quantity());
+    }
+
+    @Test
+    void addCartItemToCart_concurrentFirstAdds_createOneCart() throws Exception {
+        Long userId = fixtures.createUser("first-add-cart@example.com").getId();
+        final Long bookId = fixtures.createBook("first-add-cart-book").getId();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return shoppingCartService.addCartItemToCart(userId,
+                        new CreateRequestCartItemDto(bookId, 1));
+            }));
+        }
+
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(THREADS, shoppingCartService.findById(userId).cartItems().iterator()
+                .next().quantity());
+    }
+
+    @Test
+    void addCartItemToCart_bookAlreadyInCart_increasesQuantity() {
+        Long cartId = createCartWithItems("merge-cart@example.com", 0);
+        final Long bookId = fixtures.createBook("merge-cart-book").getId();
+
+        shoppingCartService.addCartItemToCart(cartId, new CreateRequestCartItemDto(bookId, 2));
+        ShoppingCartDto shoppingCart = shoppingCartService.addCartItemToCart(cartId,
+                new CreateRequestCartItemDto(bookId, 3));
+
+        assertEquals(1, shoppingCart.cartItems().size());
+        assertEquals(5, shoppingCart.cartItems().iterator().next().quantity());
+    }
+
+    private Long createCartWithItems(String email, int items) {
+        return transactionTemplate.execute(status -> {
+            ShoppingCart shoppingCart = fixtures.createShoppingCart(fixtures.createUser(email));
+            for (int i = 0; i < items; i++) {
+                fixtures.createCartItem(shoppingCart, fixtures.createBook(email + "-" + i));
+            }
+            return shoppingCart.getId();
+        });
+    }
+}